@@ -0,0 +1,173 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2015 Umeng, Inc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.pikachu.emoji;
+
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.text.SpannedString;
+
+/**
+ * 在后台线程解析emoji并生成span，结果在主线程回调。返回的{@link Job}可以随时取消，
+ * 取消后回调不会再被调用.
+ * 
+ * @author BinGoBinBin
+ */
+public final class AsyncEmojiParser {
+
+    private AsyncEmojiParser() {
+    }
+
+    private static final Handler sMainHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * 单线程执行，直接使用ThreadPoolExecutor以便取消时把任务从队列中移除
+     */
+    private static final ThreadPoolExecutor sExecutor = new ThreadPoolExecutor(1, 1, 0L,
+            TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+
+                @Override
+                public Thread newThread(final Runnable runnable) {
+                    Thread thread = new Thread(new Runnable() {
+
+                        @Override
+                        public void run() {
+                            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                            runnable.run();
+                        }
+                    }, "emoji-parser");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
+    /**
+     * 解析结果的回调，在主线程执行
+     */
+    public interface Callback {
+        /**
+         * @param result 带有emoji span的文本，没有emoji时为原文本
+         */
+        public void onParsed(CharSequence result);
+    }
+
+    /**
+     * 提交一个解析任务.</br>
+     * 
+     * @param text 文本，提交时会复制一份，之后修改原文本不影响解析结果
+     * @param emojiSize emoji尺寸(px)
+     * @param textSize 文字尺寸(px)
+     * @param index 开始解析的位置
+     * @param length 解析的长度，-1表示到文本末尾
+     * @param callback 主线程回调
+     * @return 可取消的任务
+     */
+    public static Job parse(CharSequence text, int emojiSize, int textSize, int index,
+            int length, Callback callback) {
+        CharSequence source = text instanceof String ? text : new SpannedString(text);
+        Job job = new Job(source, emojiSize, textSize, index, length, callback);
+        sExecutor.execute(job.mTask);
+        return job;
+    }
+
+    /**
+     * 在解析线程上执行其他后台任务，例如预先加载表情面板的资源。与解析任务串行执行</br>
+     * 
+     * @param task
+     */
+    public static void execute(Runnable task) {
+        sExecutor.execute(task);
+    }
+
+    /**
+     * 一个解析任务
+     */
+    public static final class Job implements Runnable {
+
+        private final CharSequence mText;
+        private final int mEmojiSize;
+        private final int mTextSize;
+        private final int mIndex;
+        private final int mLength;
+        private final Callback mCallback;
+        private volatile boolean mCancelled = false;
+        /**
+         * 放入队列的任务，取消时用它从队列中移除
+         */
+        private final FutureTask<Void> mTask;
+
+        private Job(CharSequence text, int emojiSize, int textSize, int index, int length,
+                Callback callback) {
+            mText = text;
+            mEmojiSize = emojiSize;
+            mTextSize = textSize;
+            mIndex = index;
+            mLength = length;
+            mCallback = callback;
+            mTask = new FutureTask<Void>(this, null);
+        }
+
+        @Override
+        public void run() {
+            if (mCancelled) {
+                return;
+            }
+            final CharSequence result = EmojiHandler.emojify(mText, mEmojiSize, mTextSize,
+                    mIndex, mLength);
+            if (mCancelled) {
+                return;
+            }
+            sMainHandler.post(new Runnable() {
+
+                @Override
+                public void run() {
+                    if (!mCancelled) {
+                        mCallback.onParsed(result);
+                    }
+                }
+            });
+        }
+
+        /**
+         * 取消任务。必须在主线程调用，调用后回调一定不会执行。还在排队的任务直接从队列中移除，
+         * 不会在队列中积压
+         */
+        public void cancel() {
+            mCancelled = true;
+            mTask.cancel(false);
+            sExecutor.remove(mTask);
+        }
+
+        public boolean isCancelled() {
+            return mCancelled;
+        }
+    }
+}
@@ -16,6 +16,9 @@
 
 package com.pikachu.emoji;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+
 import android.content.Context;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -34,10 +37,24 @@ public class EmojiAdapter extends ArrayAdapter<EmojiBean> {
     LayoutInflater mInflater;
 
     public EmojiAdapter(Context context, EmojiBean[] data) {
-        super(context, ResFinder.getLayout("emoji_item"), data);
+        // a modifiable list, so setData can replace the items in place
+        super(context, ResFinder.getLayout("emoji_item"), new ArrayList<EmojiBean>(Arrays
+                .asList(data)));
         mInflater = LayoutInflater.from(context);
     }
 
+    /**
+     * Replace the emojis shown, keeping the recycled cell views of the grid.
+     */
+    public void setData(EmojiBean[] data) {
+        setNotifyOnChange(false);
+        clear();
+        for (EmojiBean emoji : data) {
+            add(emoji);
+        }
+        notifyDataSetChanged();
+    }
+
     @Override
     public View getView(int position, View convertView, ViewGroup parent) {
         View view = convertView;
@@ -0,0 +1,339 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2015 Umeng, Inc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.pikachu.emoji;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.v4.util.AtomicFile;
+import android.util.Log;
+
+import com.pikachu.emoji.core.EmojiTable;
+
+/**
+ * 最近使用的emoji。每个emoji的得分在使用时加1，并随时间指数衰减(半衰期{@link #HALF_LIFE_MINUTES})，
+ * 既照顾常用的emoji，也让最近用过的排在前面.</br>
+ * 得分只在内存中更新，延迟{@link #WRITE_DELAY}后在后台线程批量写入一个很小的二进制文件，
+ * 点击时不会在主线程写磁盘。记录同样在后台线程读取，读取完成前为空，完成后通过{@link #runWhenLoaded(Runnable)}通知。
+ * 除{@link #getInstance(Context)}外只能在主线程使用.
+ * 
+ * @author BinGoBinBin
+ */
+public final class EmojiRecents {
+
+    /**
+     * 得分的半衰期(分钟)
+     */
+    public static final int HALF_LIFE_MINUTES = 3 * 24 * 60;
+    /**
+     * 最多保存的emoji个数，得分最低的不再保存
+     */
+    public static final int MAX_ENTRIES = 64;
+    /**
+     * 使用后延迟多久写入文件(ms)，期间的多次使用合并为一次写入
+     */
+    private static final int WRITE_DELAY = 3000;
+
+    private static final String FILE_NAME = "emoji_recents.bin";
+    private static final int MAGIC = 0x454d5243; // "EMRC"
+    private static final int VERSION = 1;
+    private static final String TAG = "EmojiRecents";
+
+    private static EmojiRecents sInstance;
+
+    private final AtomicFile mFile;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    /**
+     * 以emoji id为下标，上次使用时的得分
+     */
+    private final float[] mScores = new float[EmojiTable.size()];
+    /**
+     * 以emoji id为下标，上次使用的时间(分钟)
+     */
+    private final int[] mLastUsed = new int[EmojiTable.size()];
+    private boolean mWriteScheduled = false;
+    /**
+     * 文件中的记录是否已经合并到内存，只在主线程访问
+     */
+    private boolean mLoaded = false;
+    private final List<Runnable> mLoadedCallbacks = new ArrayList<Runnable>();
+
+    private final Runnable mWriteRunnable = new Runnable() {
+
+        @Override
+        public void run() {
+            if (!mLoaded) {
+                // 还没有读取文件，等读取完成后再写，避免覆盖之前的记录
+                mHandler.postDelayed(this, WRITE_DELAY);
+                return;
+            }
+            mWriteScheduled = false;
+            final int[] ids = getTop(MAX_ENTRIES);
+            final int[] codePoints = new int[ids.length];
+            final float[] scores = new float[ids.length];
+            final int[] lastUsed = new int[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                codePoints[i] = EmojiTable.getCodePoint(ids[i]);
+                scores[i] = mScores[ids[i]];
+                lastUsed[i] = mLastUsed[ids[i]];
+            }
+            AsyncEmojiParser.execute(new Runnable() {
+
+                @Override
+                public void run() {
+                    write(ids, codePoints, scores, lastUsed);
+                }
+            });
+        }
+    };
+
+    private EmojiRecents(Context context) {
+        mFile = new AtomicFile(new File(context.getFilesDir(), FILE_NAME));
+        AsyncEmojiParser.execute(new Runnable() {
+
+            @Override
+            public void run() {
+                final float[] scores = new float[mScores.length];
+                final int[] lastUsed = new int[mLastUsed.length];
+                read(scores, lastUsed);
+                mHandler.post(new Runnable() {
+
+                    @Override
+                    public void run() {
+                        onLoaded(scores, lastUsed);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * 获取单例，第一次调用时在后台线程开始读取记录。可以在任意线程调用
+     */
+    public static synchronized EmojiRecents getInstance(Context context) {
+        if (sInstance == null) {
+            Context appContext = context.getApplicationContext();
+            sInstance = new EmojiRecents(appContext != null ? appContext : context);
+        }
+        return sInstance;
+    }
+
+    /**
+     * 记录一次使用</br>
+     * 
+     * @param id emoji id
+     */
+    public void record(int id) {
+        if (id < 0 || id >= mScores.length) {
+            return;
+        }
+        int now = now();
+        mScores[id] = decay(mScores[id], mLastUsed[id], now) + 1;
+        mLastUsed[id] = now;
+        if (!mWriteScheduled) {
+            mWriteScheduled = true;
+            mHandler.postDelayed(mWriteRunnable, WRITE_DELAY);
+        }
+    }
+
+    /**
+     * 记录读取完成后在主线程执行callback，已经读取完成时立即执行</br>
+     * 
+     * @param callback
+     */
+    public void runWhenLoaded(Runnable callback) {
+        if (mLoaded) {
+            callback.run();
+        } else {
+            mLoadedCallbacks.add(callback);
+        }
+    }
+
+    /**
+     * 合并文件中的记录，读取期间新的使用记录在衰减后的得分上累加
+     */
+    private void onLoaded(float[] scores, int[] lastUsed) {
+        for (int id = 0; id < scores.length; id++) {
+            if (scores[id] <= 0) {
+                continue;
+            }
+            if (mScores[id] > 0) {
+                mScores[id] += decay(scores[id], lastUsed[id], mLastUsed[id]);
+            } else {
+                mScores[id] = scores[id];
+                mLastUsed[id] = lastUsed[id];
+            }
+        }
+        mLoaded = true;
+        for (Runnable callback : mLoadedCallbacks) {
+            callback.run();
+        }
+        mLoadedCallbacks.clear();
+    }
+
+    public boolean isEmpty() {
+        for (float score : mScores) {
+            if (score > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 按当前得分从高到低排列的emoji id</br>
+     * 
+     * @param max 最多返回的个数
+     * @return
+     */
+    public int[] getTop(int max) {
+        if (max <= 0) {
+            return new int[0];
+        }
+        int now = now();
+        int[] ids = new int[max];
+        float[] scores = new float[max];
+        int count = 0;
+        for (int id = 0; id < mScores.length; id++) {
+            if (mScores[id] <= 0) {
+                continue;
+            }
+            float score = decay(mScores[id], mLastUsed[id], now);
+            if (count == max && score <= scores[count - 1]) {
+                continue;
+            }
+            // 插入排序，个数很少
+            int i = count < max ? count++ : count - 1;
+            while (i > 0 && scores[i - 1] < score) {
+                ids[i] = ids[i - 1];
+                scores[i] = scores[i - 1];
+                i--;
+            }
+            ids[i] = id;
+            scores[i] = score;
+        }
+        if (count == max) {
+            return ids;
+        }
+        int[] result = new int[count];
+        System.arraycopy(ids, 0, result, 0, count);
+        return result;
+    }
+
+    /**
+     * 立即把还没有写入的记录提交到后台线程写入，例如表情面板关闭时
+     */
+    public void flush() {
+        if (mWriteScheduled) {
+            mHandler.removeCallbacks(mWriteRunnable);
+            mWriteRunnable.run();
+        }
+    }
+
+    private static int now() {
+        return (int) (System.currentTimeMillis() / 60000);
+    }
+
+    private static float decay(float score, int lastUsed, int now) {
+        if (score <= 0 || now <= lastUsed) {
+            return score;
+        }
+        return (float) (score * Math.pow(2, -(now - lastUsed) / (double) HALF_LIFE_MINUTES));
+    }
+
+    /**
+     * 文件格式: MAGIC, VERSION, count, 然后是count个(emoji id, code point, score, lastUsed)。
+     * emoji表变化后id可能失效，此时按code point重新查找。在后台线程读入scores和lastUsed
+     */
+    private void read(float[] scores, int[] lastUsed) {
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(mFile.openRead()));
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                int id = in.readInt();
+                int codePoint = in.readInt();
+                float score = in.readFloat();
+                int used = in.readInt();
+                if (id < 0 || id >= scores.length || EmojiTable.getCodePoint(id) != codePoint) {
+                    id = EmojiTable.indexOf(codePoint);
+                }
+                if (id >= 0) {
+                    scores[id] = score;
+                    lastUsed[id] = used;
+                }
+            }
+        } catch (FileNotFoundException e) {
+            // 还没有使用过
+        } catch (IOException e) {
+            Log.w(TAG, "读取最近使用的表情失败", e);
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                }
+            }
+        }
+    }
+
+    private void write(int[] ids, int[] codePoints, float[] scores, int[] lastUsed) {
+        FileOutputStream fos = null;
+        try {
+            fos = mFile.startWrite();
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(ids.length);
+            for (int i = 0; i < ids.length; i++) {
+                out.writeInt(ids[i]);
+                out.writeInt(codePoints[i]);
+                out.writeFloat(scores[i]);
+                out.writeInt(lastUsed[i]);
+            }
+            out.flush();
+            mFile.finishWrite(fos);
+        } catch (IOException e) {
+            Log.w(TAG, "保存最近使用的表情失败", e);
+            if (fos != null) {
+                mFile.failWrite(fos);
+            }
+        }
+    }
+}
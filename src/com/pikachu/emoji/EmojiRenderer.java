@@ -0,0 +1,223 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2015 Umeng, Inc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.pikachu.emoji;
+
+import java.util.Arrays;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+
+import com.pikachu.emoji.cache.EmojiBitmapCache;
+import com.pikachu.emoji.core.EmojiTable;
+import com.pikachu.emoji.utils.ResFinder;
+import com.pikachu.emoji.utils.ResFinder.ResType;
+
+/**
+ * 共享的emoji绘制器。emoji从构建时生成的图集中截取绘制，图集只解码一次并放在{@link EmojiBitmapCache}中，
+ * 使用Application Context，调用者不需要持有任何Context。绘制时直接从按(页, 采样倍数)保存的数组中取图集，
+ * 不查询缓存也不分配内存，缓存淘汰图片后数组随之作废。除{@link #prepare(int, int)}外只能在主线程调用.
+ * 
+ * @author BinGoBinBin
+ */
+public final class EmojiRenderer {
+
+    private EmojiRenderer() {
+    }
+
+    /**
+     * 表示删除按钮的emoji id，删除按钮的图片不在图集中。与{@link com.pikachu.emoji.core.EmojiMatcher#NO_VALUE}不同
+     */
+    public static final int DELETE_ICON = -2;
+
+    private static final Paint sPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private static final Rect sSrc = new Rect();
+    private static final RectF sDst = new RectF();
+
+    /**
+     * 图集每一页的drawable资源id，第一次用到时才查找，0表示还没有查找过
+     */
+    private static final int[] sAtlasResources = new int[EmojiTable.ATLAS_PAGES];
+    private static int sDeleteResource;
+
+    /**
+     * 采样倍数1, 2, 4...的级数
+     */
+    private static final int SAMPLE_LEVELS = 8;
+
+    private static final EmojiBitmapCache sBitmapCache = EmojiBitmapCache.getInstance();
+
+    /**
+     * 主线程绘制用的图集，下标为page * SAMPLE_LEVELS + 采样级别
+     */
+    private static final Bitmap[] sAtlases = new Bitmap[EmojiTable.ATLAS_PAGES * SAMPLE_LEVELS];
+    private static Bitmap sDeleteBitmap;
+    private static int sDeleteBitmapSize;
+    /**
+     * sAtlases和sDeleteBitmap对应的{@link EmojiBitmapCache#getGeneration()}
+     */
+    private static int sGeneration = -1;
+
+    /**
+     * 在(left, top)处绘制边长为size的emoji.</br>
+     * 
+     * @param canvas
+     * @param id emoji id，或者{@link #DELETE_ICON}
+     * @param size 边长(px)
+     * @param left
+     * @param top
+     */
+    public static void draw(Canvas canvas, int id, int size, float left, float top) {
+        int generation = sBitmapCache.getGeneration();
+        if (generation != sGeneration) {
+            // 缓存淘汰过图片，不再持有可能已经被淘汰的图集
+            Arrays.fill(sAtlases, null);
+            sDeleteBitmap = null;
+            sGeneration = generation;
+        }
+
+        if (id == DELETE_ICON) {
+            if (sDeleteBitmap == null || sDeleteBitmapSize != size) {
+                sDeleteBitmap = getBitmap(getDeleteResource(), size);
+                sDeleteBitmapSize = size;
+            }
+            drawIcon(canvas, sDeleteBitmap, size, left, top);
+            return;
+        }
+
+        int page = EmojiTable.getAtlasPage(id);
+        int level = getSampleLevel(size);
+        int slot = page * SAMPLE_LEVELS + level;
+        Bitmap atlas = sAtlases[slot];
+        if (atlas == null) {
+            atlas = getAtlas(page, level);
+            sAtlases[slot] = atlas;
+        }
+        if (atlas == null) {
+            return;
+        }
+        // 图集可能被系统缩放过，按实际宽度换算格子的位置
+        float scale = atlas.getWidth() / (float) (EmojiTable.ATLAS_COLUMNS * EmojiTable.ATLAS_PITCH);
+        int x = EmojiTable.getAtlasColumn(id) * EmojiTable.ATLAS_PITCH;
+        int y = EmojiTable.getAtlasRow(id) * EmojiTable.ATLAS_PITCH;
+        sSrc.set(Math.round(x * scale), Math.round(y * scale),
+                Math.round((x + EmojiTable.ATLAS_CELL) * scale),
+                Math.round((y + EmojiTable.ATLAS_CELL) * scale));
+        sDst.set(left, top, left + size, top + size);
+        canvas.drawBitmap(atlas, sSrc, sDst, sPaint);
+    }
+
+    /**
+     * 预先解码绘制边长为size的emoji所需的图片，之后的绘制直接使用缓存。可以在后台线程调用.</br>
+     * 
+     * @param id emoji id，或者{@link #DELETE_ICON}
+     * @param size 边长(px)
+     */
+    public static void prepare(int id, int size) {
+        if (id == DELETE_ICON) {
+            getBitmap(getDeleteResource(), size);
+        } else if (id >= 0) {
+            getAtlas(EmojiTable.getAtlasPage(id), getSampleLevel(size));
+        }
+    }
+
+    /**
+     * 单独的图片保持宽高比居中绘制
+     */
+    private static void drawIcon(Canvas canvas, Bitmap bitmap, int size, float left, float top) {
+        if (bitmap == null) {
+            return;
+        }
+
+        float width = size;
+        float height = size;
+        if (bitmap.getWidth() > bitmap.getHeight()) {
+            height = size * bitmap.getHeight() / (float) bitmap.getWidth();
+        } else if (bitmap.getWidth() < bitmap.getHeight()) {
+            width = size * bitmap.getWidth() / (float) bitmap.getHeight();
+        }
+        float dx = left + (size - width) / 2;
+        float dy = top + (size - height) / 2;
+        sDst.set(dx, dy, dx + width, dy + height);
+        canvas.drawBitmap(bitmap, null, sDst, sPaint);
+    }
+
+    /**
+     * 获取缩放到size的共享图片，失败时返回null
+     */
+    public static Bitmap getBitmap(int resId, int size) {
+        if (resId == 0) {
+            return null;
+        }
+        return sBitmapCache.get(getContext().getResources(), resId, size);
+    }
+
+    /**
+     * 格子缩小后仍不小于绘制尺寸时才加大采样，避免放大绘制变模糊
+     * 
+     * @return 采样倍数为2的级数次方
+     */
+    private static int getSampleLevel(int size) {
+        int level = 0;
+        while (size > 0 && level < SAMPLE_LEVELS - 1
+                && EmojiTable.ATLAS_CELL / (1 << (level + 1)) >= size) {
+            level++;
+        }
+        return level;
+    }
+
+    /**
+     * 从缓存获取图集第page页，按采样级别降采样解码，失败时返回null
+     */
+    private static Bitmap getAtlas(int page, int level) {
+        Context context = getContext();
+        int resId = sAtlasResources[page];
+        if (resId == 0) {
+            resId = ResFinder.getResourceId(ResType.DRAWABLE, EmojiTable.getAtlasName(page));
+            sAtlasResources[page] = resId;
+        }
+        return sBitmapCache.getSampled(context.getResources(), resId, 1 << level);
+    }
+
+    private static Context getContext() {
+        Context context = ResFinder.getApplicationContext();
+        if (context == null) {
+            throw new IllegalStateException("ResFinder is not initialized, create the emoji "
+                    + "views with a Context or call ResFinder.initContext() first");
+        }
+        return context;
+    }
+
+    private static int getDeleteResource() {
+        if (sDeleteResource == 0) {
+            // 删除按钮对应的资源文件
+            sDeleteResource = ResFinder.getResourceId(ResType.DRAWABLE, "emoji_delete");
+        }
+        return sDeleteResource;
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2015 Umeng, Inc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.pikachu.emoji.cache;
+
+import android.annotation.TargetApi;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Build;
+import android.support.v4.util.LruCache;
+
+/**
+ * 进程内共享的emoji图片缓存，以(资源id, 像素尺寸)为键，同一个键的所有span共用一张已经缩放好的Bitmap。
+ * 尺寸按{@link #SIZE_BUCKET}向上取整，相近的尺寸共用同一张图片。缓存按字节数限制大小，超出时淘汰最久未使用的图片.</br>
+ * 解码时先读取图片尺寸，用inSampleSize直接解码到接近目标尺寸，不会先解码出原图。内存紧张时可以通过
+ * {@link #setMaxBytes(int)}减小预算、通过{@link #setBitmapConfig(Bitmap.Config)}使用更省内存的格式.
+ * 
+ * @author BinGoBinBin
+ */
+public final class EmojiBitmapCache implements TrimmableCache {
+
+    /**
+     * 默认缓存大小，能放下一页完整的emoji图集
+     */
+    public static final int DEFAULT_MAX_BYTES = 4 * 1024 * 1024;
+    /**
+     * 尺寸分档的粒度(px)
+     */
+    public static final int SIZE_BUCKET = 4;
+
+    private static EmojiBitmapCache sInstance;
+
+    private final LruCache<Long, Bitmap> mCache;
+
+    private volatile Bitmap.Config mConfig = Bitmap.Config.ARGB_8888;
+
+    /**
+     * 每次有图片被淘汰、清除或替换时加一
+     */
+    private volatile int mGeneration = 0;
+
+    private EmojiBitmapCache(int maxBytes) {
+        mCache = new LruCache<Long, Bitmap>(maxBytes) {
+            @Override
+            protected int sizeOf(Long key, Bitmap value) {
+                return getByteCount(value);
+            }
+
+            @Override
+            protected void entryRemoved(boolean evicted, Long key, Bitmap oldValue,
+                    Bitmap newValue) {
+                mGeneration++;
+            }
+        };
+    }
+
+    public static synchronized EmojiBitmapCache getInstance() {
+        if (sInstance == null) {
+            sInstance = new EmojiBitmapCache(DEFAULT_MAX_BYTES);
+        }
+        return sInstance;
+    }
+
+    /**
+     * 设置缓存可以占用的最大字节数，超出部分立即淘汰。单张图片按原始尺寸放不下时会降采样解码，
+     * 保证总占用不超过这个预算</br>
+     * 
+     * @param maxBytes
+     */
+    public void setMaxBytes(int maxBytes) {
+        mCache.resize(maxBytes);
+    }
+
+    public int getMaxBytes() {
+        return mCache.maxSize();
+    }
+
+    /**
+     * 当前占用的字节数
+     */
+    @Override
+    public int getBytes() {
+        return mCache.size();
+    }
+
+    /**
+     * 设置解码使用的格式，默认为ARGB_8888。ARGB_4444只在Android 4.4以下占用一半内存，
+     * 从4.4开始BitmapFactory会把它按ARGB_8888解码；emoji带透明背景，不建议使用RGB_565。
+     * 修改后清空缓存，之后按新格式解码</br>
+     * 
+     * @param config
+     */
+    public void setBitmapConfig(Bitmap.Config config) {
+        if (config == null) {
+            throw new NullPointerException("bitmap config is null");
+        }
+        if (config != mConfig) {
+            mConfig = config;
+            mCache.evictAll();
+        }
+    }
+
+    public Bitmap.Config getBitmapConfig() {
+        return mConfig;
+    }
+
+    /**
+     * 缓存中的图片被淘汰、清除或替换后会变化。调用者可以在自己的数组中保存取到的图片，
+     * 这个值变化后丢弃，从而不必每次绘制都查询缓存，也不会让缓存淘汰的图片一直留在内存中.</br>
+     */
+    public int getGeneration() {
+        return mGeneration;
+    }
+
+    /**
+     * 获取缩放到指定尺寸的emoji图片，没有缓存时解码并缓存.</br>
+     * 
+     * @param resources
+     * @param resId drawable资源id
+     * @param size 高度(px)
+     * @return 解码失败时返回null
+     */
+    public Bitmap get(Resources resources, int resId, int size) {
+        int bucket = toBucket(size);
+        Long key = Long.valueOf(((long) resId << 32) | bucket);
+        Bitmap bitmap = mCache.get(key);
+        if (bitmap == null) {
+            bitmap = decode(resources, resId, bucket);
+            if (bitmap != null) {
+                mCache.put(key, bitmap);
+            }
+        }
+        return bitmap;
+    }
+
+    /**
+     * 获取按inSampleSize缩小解码的图片，用于emoji图集，绘制时再从中截取单个emoji。
+     * 图片超出缓存预算时会继续加大采样.</br>
+     * 
+     * @param resources
+     * @param resId drawable资源id
+     * @param sampleSize 采样倍数，1表示原始尺寸
+     * @return 解码失败时返回null
+     */
+    public Bitmap getSampled(Resources resources, int resId, int sampleSize) {
+        sampleSize = Math.max(1, sampleSize);
+        // 与get(Resources, int, int)的尺寸分档区分开
+        Long key = Long.valueOf(((long) resId << 32) | (-sampleSize & 0xffffffffL));
+        Bitmap bitmap = mCache.get(key);
+        if (bitmap == null) {
+            BitmapFactory.Options options = readBounds(resources, resId);
+            bitmap = options == null ? null : decodeSampled(resources, resId, options,
+                    sampleSize);
+            if (bitmap != null) {
+                mCache.put(key, bitmap);
+            }
+        }
+        return bitmap;
+    }
+
+    @Override
+    public String getName() {
+        return "bitmaps";
+    }
+
+    @Override
+    public void trimToSize(int maxBytes) {
+        mCache.trimToSize(maxBytes);
+    }
+
+    /**
+     * 清空缓存。已经被span持有的图片不会被回收，仍可以正常绘制
+     */
+    public void clear() {
+        mCache.evictAll();
+    }
+
+    private static int toBucket(int size) {
+        return Math.max(SIZE_BUCKET, (size + SIZE_BUCKET - 1) / SIZE_BUCKET * SIZE_BUCKET);
+    }
+
+    private Bitmap decode(Resources resources, int resId, int size) {
+        BitmapFactory.Options options = readBounds(resources, resId);
+        if (options == null) {
+            return null;
+        }
+        // 采样到不小于目标高度的最小尺寸，剩下的部分再做一次平滑缩放
+        int sampleSize = 1;
+        while (options.outHeight / (sampleSize * 2) >= size) {
+            sampleSize *= 2;
+        }
+        Bitmap source = decodeSampled(resources, resId, options, sampleSize);
+        if (source == null || source.getHeight() == size) {
+            return source;
+        }
+        int width = Math.max(1, size * source.getWidth() / source.getHeight());
+        Bitmap scaled = Bitmap.createScaledBitmap(source, width, size, true);
+        if (scaled != source) {
+            source.recycle();
+        }
+        return scaled;
+    }
+
+    private Bitmap decodeSampled(Resources resources, int resId, BitmapFactory.Options options,
+            int sampleSize) {
+        int bytesPerPixel = getBytesPerPixel(mConfig);
+        long maxBytes = mCache.maxSize();
+        while (sampleSize < options.outWidth
+                && (long) (options.outWidth / sampleSize) * (options.outHeight / sampleSize)
+                        * bytesPerPixel > maxBytes) {
+            sampleSize *= 2;
+        }
+
+        options.inJustDecodeBounds = false;
+        options.inPreferredConfig = mConfig;
+        while (true) {
+            options.inSampleSize = sampleSize;
+            Bitmap bitmap = BitmapFactory.decodeResource(resources, resId, options);
+            // 以解码结果的实际大小为准，估算可能因为格式被替换而偏小
+            if (bitmap == null || getByteCount(bitmap) <= maxBytes
+                    || sampleSize >= options.outWidth) {
+                return bitmap;
+            }
+            bitmap.recycle();
+            sampleSize *= 2;
+        }
+    }
+
+    /**
+     * 按config解码后每个像素占用的字节数
+     */
+    private static int getBytesPerPixel(Bitmap.Config config) {
+        if (config == Bitmap.Config.ALPHA_8) {
+            return 1;
+        }
+        if (config == Bitmap.Config.RGB_565) {
+            return 2;
+        }
+        if (config == Bitmap.Config.ARGB_4444
+                && Build.VERSION.SDK_INT < Build.VERSION_CODES.KITKAT) {
+            return 2;
+        }
+        return 4;
+    }
+
+    /**
+     * 图片实际占用的字节数
+     */
+    @TargetApi(Build.VERSION_CODES.KITKAT)
+    private static int getByteCount(Bitmap bitmap) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+            return bitmap.getAllocationByteCount();
+        }
+        return bitmap.getRowBytes() * bitmap.getHeight();
+    }
+
+    private static BitmapFactory.Options readBounds(Resources resources, int resId) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeResource(resources, resId, options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            return null;
+        }
+        return options;
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2015 Umeng, Inc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.pikachu.emoji.cache;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import android.annotation.TargetApi;
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.os.Build;
+
+/**
+ * emoji缓存的统一管理。图片缓存和解析结果缓存默认已注册，表情面板等其他缓存通过
+ * {@link #register(TrimmableCache)}注册，只持有弱引用。收到系统的内存回收通知时按级别分档释放:</br>
+ * 前台内存偏低、界面隐藏时保留一半；内存较低、进入后台LRU列表时保留四分之一；内存严重不足或者进程即将被杀时全部释放.
+ * 
+ * @author BinGoBinBin
+ */
+public final class EmojiCacheManager {
+
+    private static EmojiCacheManager sInstance;
+
+    private final List<WeakReference<TrimmableCache>> mCaches =
+            new ArrayList<WeakReference<TrimmableCache>>();
+    private boolean mInstalled = false;
+
+    private EmojiCacheManager() {
+        register(EmojiBitmapCache.getInstance());
+        register(EmojiTextCache.getInstance());
+    }
+
+    public static synchronized EmojiCacheManager getInstance() {
+        if (sInstance == null) {
+            sInstance = new EmojiCacheManager();
+        }
+        return sInstance;
+    }
+
+    /**
+     * 向Application注册内存回收回调，多次调用只注册一次。API 14以下系统没有onTrimMemory，
+     * 需要在Application.onLowMemory中调用{@link #onLowMemory()}</br>
+     * 
+     * @param context
+     */
+    public synchronized void install(Context context) {
+        if (mInstalled || Build.VERSION.SDK_INT < Build.VERSION_CODES.ICE_CREAM_SANDWICH) {
+            return;
+        }
+        Context appContext = context.getApplicationContext();
+        registerCallbacks(appContext != null ? appContext : context);
+        mInstalled = true;
+    }
+
+    @TargetApi(Build.VERSION_CODES.ICE_CREAM_SANDWICH)
+    private void registerCallbacks(Context context) {
+        context.registerComponentCallbacks(new ComponentCallbacks2() {
+
+            @Override
+            public void onTrimMemory(int level) {
+                EmojiCacheManager.this.onTrimMemory(level);
+            }
+
+            @Override
+            public void onLowMemory() {
+                EmojiCacheManager.this.onLowMemory();
+            }
+
+            @Override
+            public void onConfigurationChanged(Configuration newConfig) {
+            }
+        });
+    }
+
+    /**
+     * 注册缓存，只持有弱引用，缓存被回收后自动移除</br>
+     * 
+     * @param cache
+     */
+    public synchronized void register(TrimmableCache cache) {
+        for (WeakReference<TrimmableCache> ref : mCaches) {
+            if (ref.get() == cache) {
+                return;
+            }
+        }
+        mCaches.add(new WeakReference<TrimmableCache>(cache));
+    }
+
+    public synchronized void unregister(TrimmableCache cache) {
+        Iterator<WeakReference<TrimmableCache>> iterator = mCaches.iterator();
+        while (iterator.hasNext()) {
+            TrimmableCache item = iterator.next().get();
+            if (item == null || item == cache) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * 按{@link ComponentCallbacks2}的级别释放缓存</br>
+     * 
+     * @param level
+     */
+    public void onTrimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE
+                || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+            trim(0);
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND
+                || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            trim(4);
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE) {
+            trim(2);
+        }
+    }
+
+    public void onLowMemory() {
+        trim(0);
+    }
+
+    /**
+     * 所有已注册缓存当前估算占用的字节数，按注册顺序排列
+     */
+    public synchronized Map<String, Integer> getSizes() {
+        Map<String, Integer> sizes = new LinkedHashMap<String, Integer>();
+        for (TrimmableCache cache : getCaches()) {
+            Integer bytes = sizes.get(cache.getName());
+            sizes.put(cache.getName(), (bytes == null ? 0 : bytes) + cache.getBytes());
+        }
+        return sizes;
+    }
+
+    /**
+     * 所有已注册缓存当前估算占用的总字节数
+     */
+    public synchronized int getTotalBytes() {
+        int total = 0;
+        for (TrimmableCache cache : getCaches()) {
+            total += cache.getBytes();
+        }
+        return total;
+    }
+
+    /**
+     * @param divisor 每个缓存保留当前占用的1/divisor，0表示全部释放
+     */
+    private void trim(int divisor) {
+        List<TrimmableCache> caches;
+        synchronized (this) {
+            caches = getCaches();
+        }
+        for (TrimmableCache cache : caches) {
+            cache.trimToSize(divisor == 0 ? 0 : cache.getBytes() / divisor);
+        }
+    }
+
+    private List<TrimmableCache> getCaches() {
+        List<TrimmableCache> caches = new ArrayList<TrimmableCache>(mCaches.size());
+        Iterator<WeakReference<TrimmableCache>> iterator = mCaches.iterator();
+        while (iterator.hasNext()) {
+            TrimmableCache cache = iterator.next().get();
+            if (cache == null) {
+                iterator.remove();
+            } else {
+                caches.add(cache);
+            }
+        }
+        return caches;
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2015 Umeng, Inc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.pikachu.emoji.cache;
+
+import android.support.v4.util.LruCache;
+import android.text.Spanned;
+
+/**
+ * 解析结果缓存。以(文本, emoji尺寸, 文字尺寸, 解析区间)为键缓存带有emoji span的不可变文本，
+ * 列表滑回已经显示过的消息时可以直接使用，不再重复扫描和创建span。只缓存String类型的文本，
+ * 其他CharSequence可能带有调用者自己的span或者会被修改.
+ * 
+ * @author BinGoBinBin
+ */
+public final class EmojiTextCache implements TrimmableCache {
+
+    /**
+     * 默认缓存大小
+     */
+    public static final int DEFAULT_MAX_BYTES = 512 * 1024;
+
+    /**
+     * 估算一个span及其在Spanned中的记录占用的字节数
+     */
+    private static final int SPAN_BYTES = 48;
+    /**
+     * 估算每个缓存项固定占用的字节数
+     */
+    private static final int ENTRY_BYTES = 96;
+
+    private static EmojiTextCache sInstance;
+
+    private final LruCache<Key, Entry> mCache;
+
+    private EmojiTextCache(int maxBytes) {
+        mCache = new LruCache<Key, Entry>(maxBytes) {
+            @Override
+            protected int sizeOf(Key key, Entry value) {
+                return value.mBytes;
+            }
+        };
+    }
+
+    public static synchronized EmojiTextCache getInstance() {
+        if (sInstance == null) {
+            sInstance = new EmojiTextCache(DEFAULT_MAX_BYTES);
+        }
+        return sInstance;
+    }
+
+    /**
+     * 查找缓存的解析结果</br>
+     * 
+     * @return 没有缓存或者text不能缓存时返回null
+     */
+    public Spanned get(CharSequence text, int emojiSize, int textSize, int index, int length) {
+        if (!(text instanceof String)) {
+            return null;
+        }
+        Entry entry = mCache.get(new Key((String) text, emojiSize, textSize, index, length));
+        return entry == null ? null : entry.mResult;
+    }
+
+    /**
+     * 缓存解析结果，result中的span必须是不可变的</br>
+     */
+    public void put(CharSequence text, int emojiSize, int textSize, int index, int length,
+            Spanned result, int spanCount) {
+        if (!(text instanceof String)) {
+            return;
+        }
+        int bytes = ENTRY_BYTES + text.length() * 4 + spanCount * SPAN_BYTES;
+        mCache.put(new Key((String) text, emojiSize, textSize, index, length), new Entry(result,
+                bytes));
+    }
+
+    public void setMaxBytes(int maxBytes) {
+        mCache.resize(maxBytes);
+    }
+
+    public int getMaxBytes() {
+        return mCache.maxSize();
+    }
+
+    /**
+     * 当前估算占用的字节数
+     */
+    @Override
+    public int getBytes() {
+        return mCache.size();
+    }
+
+    public int getHitCount() {
+        return mCache.hitCount();
+    }
+
+    public int getMissCount() {
+        return mCache.missCount();
+    }
+
+    @Override
+    public String getName() {
+        return "texts";
+    }
+
+    @Override
+    public void trimToSize(int maxBytes) {
+        mCache.trimToSize(maxBytes);
+    }
+
+    public void clear() {
+        mCache.evictAll();
+    }
+
+    private static final class Key {
+        final String mText;
+        final int mEmojiSize;
+        final int mTextSize;
+        final int mIndex;
+        final int mLength;
+        final int mHash;
+
+        Key(String text, int emojiSize, int textSize, int index, int length) {
+            mText = text;
+            mEmojiSize = emojiSize;
+            mTextSize = textSize;
+            mIndex = index;
+            mLength = length;
+            int hash = text.hashCode();
+            hash = 31 * hash + emojiSize;
+            hash = 31 * hash + textSize;
+            hash = 31 * hash + index;
+            hash = 31 * hash + length;
+            mHash = hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return mHash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof Key))
+                return false;
+            Key other = (Key) obj;
+            return mHash == other.mHash && mEmojiSize == other.mEmojiSize
+                    && mTextSize == other.mTextSize && mIndex == other.mIndex
+                    && mLength == other.mLength && mText.equals(other.mText);
+        }
+    }
+
+    private static final class Entry {
+        final Spanned mResult;
+        final int mBytes;
+
+        Entry(Spanned result, int bytes) {
+            mResult = result;
+            mBytes = bytes;
+        }
+    }
+}
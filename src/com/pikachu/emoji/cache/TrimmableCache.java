@@ -0,0 +1,50 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2015 Umeng, Inc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.pikachu.emoji.cache;
+
+/**
+ * 可以在内存紧张时释放的缓存，注册到{@link EmojiCacheManager}后由其统一回收.
+ * 
+ * @author BinGoBinBin
+ */
+public interface TrimmableCache {
+
+    /**
+     * 缓存名称，用于{@link EmojiCacheManager#getSizes()}
+     */
+    public String getName();
+
+    /**
+     * 当前估算占用的字节数
+     */
+    public int getBytes();
+
+    /**
+     * 释放缓存直到占用不超过maxBytes，0表示全部释放。缓存的上限保持不变，之后可以重新增长</br>
+     * 
+     * @param maxBytes
+     */
+    public void trimToSize(int maxBytes);
+}
@@ -0,0 +1,123 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2015 Umeng, Inc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */package com.pikachu.emoji.core;
+
+import java.util.Arrays;
+
+/**
+ * 两级分块表实现的{@link CodePointIndex}。code point的高位选择块，低{@value #SHIFT}位为块内下标，
+ * 内容完全相同的块（包括全空的块）只保存一份。一次查找只有一次边界判断和两次数组访问.
+ * 
+ * @author BinGoBinBin
+ */
+public final class BlockCodePointIndex implements CodePointIndex {
+
+    private static final int SHIFT = 8;
+    private static final int BLOCK_SIZE = 1 << SHIFT;
+    private static final int MASK = BLOCK_SIZE - 1;
+
+    /**
+     * 块号 -> 块在mValues中的起始位置
+     */
+    private final int[] mBlockOffsets;
+    private final int[] mValues;
+
+    private BlockCodePointIndex(int[] blockOffsets, int[] values) {
+        mBlockOffsets = blockOffsets;
+        mValues = values;
+    }
+
+    @Override
+    public int get(int codePoint) {
+        int block = codePoint >>> SHIFT;
+        if (block >= mBlockOffsets.length) {
+            return NO_VALUE;
+        }
+        return mValues[mBlockOffsets[block] + (codePoint & MASK)];
+    }
+
+    /**
+     * 以codePoints[i] -> values[i]构建索引，重复的code point以后者为准.</br>
+     * 
+     * @param codePoints
+     * @param values
+     * @return
+     */
+    public static BlockCodePointIndex build(int[] codePoints, int[] values) {
+        if (codePoints.length != values.length) {
+            throw new IllegalArgumentException("codePoints and values must have the same length");
+        }
+
+        int maxCodePoint = -1;
+        for (int codePoint : codePoints) {
+            if (codePoint < 0 || codePoint > Character.MAX_CODE_POINT) {
+                throw new IllegalArgumentException("invalid code point " + codePoint);
+            }
+            maxCodePoint = Math.max(maxCodePoint, codePoint);
+        }
+
+        // 先按块展开，再合并相同的块
+        int blockCount = (maxCodePoint >>> SHIFT) + 1;
+        int[][] blocks = new int[blockCount][];
+        for (int i = 0; i < codePoints.length; i++) {
+            int block = codePoints[i] >>> SHIFT;
+            if (blocks[block] == null) {
+                blocks[block] = newEmptyBlock();
+            }
+            blocks[block][codePoints[i] & MASK] = values[i];
+        }
+
+        int[] emptyBlock = newEmptyBlock();
+        int[][] distinct = new int[blockCount + 1][];
+        int distinctCount = 0;
+        distinct[distinctCount++] = emptyBlock;
+        int[] blockOffsets = new int[blockCount];
+        for (int block = 0; block < blockCount; block++) {
+            int[] content = blocks[block] == null ? emptyBlock : blocks[block];
+            int found = -1;
+            for (int j = 0; j < distinctCount; j++) {
+                if (Arrays.equals(distinct[j], content)) {
+                    found = j;
+                    break;
+                }
+            }
+            if (found < 0) {
+                found = distinctCount;
+                distinct[distinctCount++] = content;
+            }
+            blockOffsets[block] = found << SHIFT;
+        }
+
+        int[] flat = new int[distinctCount << SHIFT];
+        for (int j = 0; j < distinctCount; j++) {
+            System.arraycopy(distinct[j], 0, flat, j << SHIFT, BLOCK_SIZE);
+        }
+        return new BlockCodePointIndex(blockOffsets, flat);
+    }
+
+    private static int[] newEmptyBlock() {
+        int[] block = new int[BLOCK_SIZE];
+        Arrays.fill(block, NO_VALUE);
+        return block;
+    }
+}
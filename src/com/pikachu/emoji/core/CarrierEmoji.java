@@ -0,0 +1,165 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2015 Umeng, Inc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.pikachu.emoji.core;
+
+/**
+ * 日本运营商(SoftBank、DoCoMo、KDDI)在Unicode 6.0之前使用的私有区emoji与标准code point的对照表，
+ * 数据由tools/carrier_emoji.txt在构建时生成。每个运营商一张覆盖其私有区范围的连续表，翻译一个字符只需一次数组访问。
+ * 不同运营商的私有区有重叠，翻译时需要指定来源运营商。只依赖JDK，可以在JVM上批量转换已保存的文本.</br>
+ * 表中没有的私有区字符保持不变。KDDI目前只有天气和星座，构建时加入Unicode的EmojiSources.txt后三个运营商都是完整的.
+ * 
+ * @author BinGoBinBin
+ */
+public final class CarrierEmoji {
+
+    private CarrierEmoji() {
+    }
+
+    public static final int SOFTBANK = 0;
+    public static final int DOCOMO = 1;
+    public static final int KDDI = 2;
+
+    private static final int[] FIRSTS = {
+            EmojiData.Carriers.SOFTBANK_FIRST, EmojiData.Carriers.DOCOMO_FIRST,
+            EmojiData.Carriers.KDDI_FIRST
+    };
+    private static final String[] TABLES = {
+            EmojiData.Carriers.SOFTBANK, EmojiData.Carriers.DOCOMO, EmojiData.Carriers.KDDI
+    };
+    private static final String REPLACEMENTS = EmojiData.Carriers.REPLACEMENTS;
+    private static final String REPLACEMENT_STARTS = EmojiData.Carriers.REPLACEMENT_STARTS;
+
+    /**
+     * 是否为BMP私有区字符
+     */
+    public static boolean isPrivateUse(char c) {
+        return c >= 0xe000 && c <= 0xf8ff;
+    }
+
+    /**
+     * 查找私有区字符对应的替换序列编号.</br>
+     * 
+     * @param carrier {@link #SOFTBANK}、{@link #DOCOMO}或{@link #KDDI}
+     * @param c 字符
+     * @return 替换序列编号，没有对应的emoji时返回{@link EmojiMatcher#NO_VALUE}
+     */
+    public static int find(int carrier, char c) {
+        String table = TABLES[carrier];
+        int index = c - FIRSTS[carrier];
+        if (index < 0 || index >= table.length()) {
+            return EmojiMatcher.NO_VALUE;
+        }
+        // 表中保存编号 + 1，0表示没有
+        return table.charAt(index) - 1;
+    }
+
+    /**
+     * 运营商表覆盖的第一个私有区字符
+     */
+    public static int getRangeStart(int carrier) {
+        return FIRSTS[carrier];
+    }
+
+    /**
+     * 运营商表覆盖的最后一个私有区字符之后的位置，没有数据时等于{@link #getRangeStart(int)}
+     */
+    public static int getRangeEnd(int carrier) {
+        return FIRSTS[carrier] + TABLES[carrier].length();
+    }
+
+    /**
+     * 替换序列只有一个code point时返回它，否则(国旗、keycap等序列)返回{@link EmojiMatcher#NO_VALUE}
+     */
+    public static int getReplacementCodePoint(int replacement) {
+        int start = REPLACEMENT_STARTS.charAt(replacement);
+        int end = REPLACEMENT_STARTS.charAt(replacement + 1);
+        int codePoint = REPLACEMENTS.codePointAt(start);
+        return Character.charCount(codePoint) == end - start ? codePoint : EmojiMatcher.NO_VALUE;
+    }
+
+    /**
+     * 把替换序列追加到out</br>
+     * 
+     * @param replacement {@link #find(int, char)}返回的编号
+     * @param out
+     */
+    public static void appendReplacement(int replacement, StringBuilder out) {
+        out.append(REPLACEMENTS, REPLACEMENT_STARTS.charAt(replacement),
+                REPLACEMENT_STARTS.charAt(replacement + 1));
+    }
+
+    /**
+     * 把carrier运营商的私有区emoji转换成标准code point。没有需要转换的字符时直接返回text，不分配内存.</br>
+     * 
+     * @param text 文本
+     * @param carrier 文本来源的运营商
+     * @return 转换后的文本
+     */
+    public static CharSequence transcode(CharSequence text, int carrier) {
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            if (isPrivateUse(text.charAt(i)) && find(carrier, text.charAt(i)) >= 0) {
+                // 第一个需要替换的字符之前的内容原样复制，之后一次扫描完成
+                StringBuilder out = new StringBuilder(length + 16);
+                out.append(text, 0, i);
+                transcode(text, i, length, carrier, out);
+                return out.toString();
+            }
+        }
+        return text;
+    }
+
+    /**
+     * 转换text中[start, end)区间，结果追加到out。没有对应emoji的私有区字符原样保留.</br>
+     * 
+     * @param text 文本
+     * @param start 起始位置
+     * @param end 结束位置(不包含)
+     * @param carrier 文本来源的运营商
+     * @param out 输出
+     * @return 替换的字符个数
+     */
+    public static int transcode(CharSequence text, int start, int end, int carrier,
+            StringBuilder out) {
+        int count = 0;
+        int copied = start;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (!isPrivateUse(c)) {
+                continue;
+            }
+            int replacement = find(carrier, c);
+            if (replacement < 0) {
+                continue;
+            }
+            out.append(text, copied, i);
+            appendReplacement(replacement, out);
+            copied = i + 1;
+            count++;
+        }
+        out.append(text, copied, end);
+        return count;
+    }
+}
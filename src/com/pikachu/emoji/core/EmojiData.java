@@ -0,0 +1,472 @@
+/*
+ * AUTO-GENERATED FILE. DO NOT MODIFY.
+ *
+ * Generated by EmojiTableGenerator from tools/emoji.txt.
+ */
+
+package com.pikachu.emoji.core;
+
+final class EmojiData {
+
+    private EmojiData() {
+    }
+
+    /**
+     * 有图片的emoji，按表情面板的顺序排列，下标即emoji id
+     */
+    static final int[] CODE_POINTS = {
+            0x1f604, 0x1f603, 0x1f600, 0x1f60a, 0x263a, 0x1f609, 0x1f60d, 0x1f618,
+            0x1f61a, 0x1f617, 0x1f619, 0x1f61c, 0x1f61d, 0x1f61b, 0x1f633, 0x1f601,
+            0x1f614, 0x1f60c, 0x1f612, 0x1f61e, 0x1f623, 0x1f622, 0x1f602, 0x1f62d,
+            0x1f62a, 0x1f625, 0x1f630, 0x1f605, 0x1f613, 0x1f629, 0x1f62b, 0x1f628,
+            0x1f631, 0x1f620, 0x1f621, 0x1f624, 0x1f616, 0x1f606, 0x1f60b, 0x1f637,
+            0x1f60e, 0x1f634, 0x1f635, 0x1f632, 0x1f61f, 0x1f626, 0x1f627, 0x1f608,
+            0x1f62e, 0x1f62c, 0x1f610, 0x1f615, 0x1f62f, 0x1f636, 0x1f607, 0x1f60f,
+            0x1f611, 0x1f466, 0x1f467, 0x1f468, 0x1f63a, 0x1f638, 0x1f63b, 0x1f63d,
+            0x1f63c, 0x1f640, 0x1f63f, 0x1f639, 0x1f63e, 0x1f648, 0x1f649, 0x1f64a,
+            0x1f525, 0x2728, 0x1f440, 0x1f443, 0x1f444, 0x1f44d, 0x1f44e, 0x1f44c,
+            0x1f44a, 0x270a, 0x270c, 0x1f44b, 0x270b, 0x1f446, 0x1f447, 0x1f449,
+            0x1f448, 0x1f64c, 0x1f64f, 0x261d, 0x1f44f, 0x1f4aa, 0x1f48f, 0x1f491,
+            0x1f646, 0x1f645, 0x1f481, 0x1f64b, 0x1f486, 0x1f487, 0x1f485, 0x1f64e,
+            0x1f64d, 0x1f647, 0x1f451, 0x1f380, 0x1f302, 0x1f484, 0x1f49b, 0x1f499,
+            0x1f49c, 0x1f49a, 0x2764, 0x1f494, 0x1f49e, 0x1f349, 0x1f350, 0x1f351,
+            0x1f352, 0x1f354, 0x1f356, 0x1f360, 0x1f366, 0x1f370, 0x1f385, 0x1f3b1,
+            0x1f3b2, 0x1f40d, 0x1f414, 0x1f417, 0x1f418, 0x1f419, 0x1f420, 0x1f421,
+            0x1f422, 0x1f424, 0x1f426, 0x1f427, 0x1f428, 0x1f429, 0x1f42c, 0x1f42d,
+            0x1f42e, 0x1f42f, 0x1f430, 0x1f431, 0x1f432, 0x1f433, 0x1f434, 0x1f435,
+            0x1f436, 0x1f437, 0x1f438, 0x1f439, 0x1f43a, 0x1f43b, 0x1f43c, 0x1f43d,
+            0x1f469, 0x1f470, 0x1f471, 0x1f472, 0x1f473, 0x1f474, 0x1f475, 0x1f476,
+            0x1f477, 0x1f478, 0x1f493, 0x1f4a6, 0x1f4a8, 0x1f4a9, 0x1f680, 0x1f681,
+            0x1f682, 0x1f683, 0x1f684, 0x1f685, 0x1f688, 0x1f689, 0x1f690, 0x1f691,
+            0x1f692, 0x1f693, 0x1f696, 0x1f698, 0x2122, 0x2600, 0x2601, 0x2614,
+            0x26a1, 0x2744, 0x1f442, 0x1f48e, 0x1f495, 0x1f496, 0x1f498, 0x1f4a5
+    };
+
+    /**
+     * 图集中每个emoji格子的边长(px)
+     */
+    static final int ATLAS_CELL = 48;
+
+    /**
+     * 图集中相邻格子起点的距离(px)
+     */
+    static final int ATLAS_PITCH = 50;
+
+    /**
+     * 图集每行的格子数
+     */
+    static final int ATLAS_COLUMNS = 15;
+
+    /**
+     * 图集每页的行数
+     */
+    static final int ATLAS_ROWS = 14;
+
+    /**
+     * 图集页数，第N页的资源名为emoji_atlas_N
+     */
+    static final int ATLAS_PAGES = 1;
+
+    /**
+     * 搜索关键字的前缀索引，关键字按字典序排列
+     */
+    static final class Keywords {
+
+        private Keywords() {
+        }
+
+        /**
+         * 所有关键字依次拼接
+         */
+        static final String WORDS = "+1-118ballambulanceangelangryang"
+                + "uishedapplausearrowastonishedaut"
+                + "omobilebabybaby_chickbackhandbea"
+                + "rbeatingbicepsbilliardsbirdblond"
+                + "blondeblowfishblueblue_heartblus"
+                + "hboarboneboombowbowingboybridebr"
+                + "ide_with_veilbrokenbroken_heartb"
+                + "ulletbullettrain_frontbullettrai"
+                + "n_sideburgerbyecakecarcatcelebra"
+                + "tecelebrationcherrieschickchicke"
+                + "nchristmasclapclappingclosedclos"
+                + "ed_umbrellacloudcloudycoldcold_s"
+                + "weatcollisionconfoundedconfusedc"
+                + "onstructionconstruction_workerco"
+                + "olcouplecouple_with_heartcouplek"
+                + "isscowcreamcrowncrycryingcrying_"
+                + "cat_facecupiddashdeeplydelicious"
+                + "deskdevildiamonddicediedisappoin"
+                + "teddisappointed_relieveddisliked"
+                + "izzydizzy_facedogdolphindowndrag"
+                + "ondragon_facedropsearelephanteng"
+                + "ineevilexpressionlesseyeeyesface"
+                + "fatherfearfearfulfirefire_engine"
+                + "fishfistfistedflexedflushedfolde"
+                + "dfoodfrogfrowninggamegame_diegem"
+                + "gesturegirlgoodgreengreen_heartg"
+                + "rimacinggringrinningguahairhairc"
+                + "uthalohamburgerhamsterhandhandsh"
+                + "appyhearhear_no_evilheartheart_e"
+                + "yesheart_eyes_catheartbeathearts"
+                + "helicopterhellohihighhoorayhorns"
+                + "horsehothushediceicecreamimpinde"
+                + "xinformationinformation_desk_per"
+                + "soninnocentjoyjoy_catkisskissing"
+                + "kissing_catkissing_closed_eyeski"
+                + "ssing_heartkissing_smiling_eyesk"
+                + "ittenkoalalaughlaughinglaunchlef"
+                + "tlightlight_raillightninglikelip"
+                + "slipsticklitlocomotivelollooklou"
+                + "dlylovemadmanman_with_gua_pi_mao"
+                + "man_with_turbanmaomarkmaskmassag"
+                + "emeatmeat_on_bonemedicalminibusm"
+                + "onkeymonkey_facemousemouthmuscle"
+                + "nailnail_careneutralneutral_face"
+                + "nono_goodno_mouthnoseoctopusokok"
+                + "_handok_womanolderolder_manolder"
+                + "_womanoncomingoncoming_automobil"
+                + "eoncoming_taxiopenopen_mouthoutp"
+                + "andapanda_facepeacepeachpearpeng"
+                + "uinpensiveperfectperseverepersev"
+                + "eringpersonperson_frowningperson"
+                + "_with_blond_hairperson_with_pout"
+                + "ing_facepipigpig_nosepilepleasep"
+                + "oint_downpoint_leftpoint_rightpo"
+                + "int_uppoint_up_2pointingpolicepo"
+                + "lice_carpolishpoopoodlepoolpoopp"
+                + "otatopoutingpouting_catprayprinc"
+                + "esspunchpuppypurplepurple_heartr"
+                + "abbitragerailrailwayrailway_carr"
+                + "ainraisedraised_handsraisingrais"
+                + "ing_handraysredrelaxedrelievedre"
+                + "volvingrevolving_heartsribbonrig"
+                + "htroastedrocketsadsantasavouring"
+                + "screamscream_catscreamingseesee_"
+                + "no_evilshapedshortcakesicksleepi"
+                + "ngsleepysmilesmile_catsmileysmil"
+                + "ey_catsmilingsmiling_impsmirksmi"
+                + "rk_catsmirkingsnakesnowsnowflake"
+                + "sobsoftspacesparklessparklingspa"
+                + "rkling_heartspeakspeak_no_evilsp"
+                + "eedsplashingspoutingstationsteam"
+                + "steam_locomotivestonestrongstuck"
+                + "stuck_out_tonguestuck_out_tongue"
+                + "_closed_eyesstuck_out_tongue_win"
+                + "king_eyesunsunglassessunnysweats"
+                + "weat_dropssweat_smilesweetsweet_"
+                + "potatotaxitearsthanksthrowingthu"
+                + "mbstigertightlytiredtired_facetm"
+                + "tonguetradetraintriumphtropicalt"
+                + "ropical_fishturbanturtletwotwo_h"
+                + "eartsumbrellaunamusedupvveilvict"
+                + "oryvoltagewatermelonwavewavingwe"
+                + "aryweatherwhalewinkwinkingwithou"
+                + "twolfwomanworkerworriedwryxmasye"
+                + "llowyellow_heartyesyumzapzzz";
+
+        /**
+         * 第i个字符为第i个关键字在WORDS中的起点，最后一项为WORDS的长度
+         */
+        static final String WORD_STARTS = "\000\002\004\005\012\023\030\035&.3=GKU]ahnw{\u0080\u0086\u008e\u0092\u009c\u00a1\u00a5\u00a9\u00ad\u00b0\u00b6"
+                + "\u00b9\u00be\u00cd\u00d3\u00df\u00e5\u00f6\u0106\u010c\u010f\u0113\u0116\u0119\u0122\u012d\u0135\u013a\u0141\u014a\u014e\u0156\u015c\u016b\u0170\u0176\u017a\u0184\u018d\u0197\u019f\u01ab\u01be"
+                + "\u01c2\u01c8\u01d9\u01e3\u01e6\u01eb\u01f0\u01f3\u01f9\u0208\u020d\u0211\u0217\u0220\u0224\u0229\u0230\u0234\u0237\u0243\u0258\u025f\u0264\u026e\u0271\u0278\u027c\u0282\u028d\u0292\u0295\u029d"
+                + "\u02a3\u02a7\u02b5\u02b8\u02bc\u02c0\u02c6\u02ca\u02d1\u02d5\u02e0\u02e4\u02e8\u02ee\u02f4\u02fb\u0301\u0305\u0309\u0311\u0315\u031d\u0320\u0327\u032b\u032f\u0334\u033f\u0348\u034c\u0354\u0357"
+                + "\u035b\u0362\u0366\u036f\u0376\u037a\u037f\u0384\u0388\u0394\u0399\u03a3\u03b1\u03ba\u03c0\u03ca\u03cf\u03d1\u03d5\u03db\u03e0\u03e5\u03e8\u03ee\u03f1\u03f9\u03fc\u0401\u040c\u0423\u042b\u042e"
+                + "\u0435\u0439\u0440\u044b\u045e\u046b\u047f\u0485\u048a\u048f\u0497\u049d\u04a1\u04a6\u04b0\u04b9\u04bd\u04c1\u04c9\u04cc\u04d6\u04d9\u04dd\u04e3\u04e7\u04ea\u04ed\u0500\u050f\u0512\u0516\u051a"
+                + "\u0521\u0525\u0531\u0538\u053f\u0545\u0550\u0555\u055a\u0560\u0564\u056d\u0574\u0580\u0582\u0589\u0591\u0595\u059c\u059e\u05a5\u05ad\u05b2\u05bb\u05c6\u05ce\u05e1\u05ee\u05f2\u05fc\u05ff\u0604"
+                + "\u060e\u0613\u0618\u061c\u0623\u062a\u0631\u063a\u0645\u064b\u065a\u0670\u0688\u068a\u068d\u0695\u0699\u069f\u06a9\u06b3\u06be\u06c6\u06d0\u06d8\u06de\u06e8\u06ee\u06f1\u06f7\u06fb\u06ff\u0705"
+                + "\u070c\u0717\u071b\u0723\u0728\u072d\u0733\u073f\u0745\u0749\u074d\u0754\u075f\u0763\u0769\u0775\u077c\u0788\u078c\u078f\u0796\u079e\u07a7\u07b7\u07bd\u07c2\u07c9\u07cf\u07d2\u07d7\u07e0\u07e6"
+                + "\u07f0\u07f9\u07fc\u0807\u080d\u0816\u081a\u0822\u0828\u082d\u0836\u083c\u0846\u084d\u0858\u085d\u0866\u086e\u0873\u0877\u0880\u0883\u0887\u088c\u0894\u089d\u08ac\u08b1\u08be\u08c3\u08cc\u08d4"
+                + "\u08db\u08e0\u08f0\u08f5\u08fb\u0900\u0910\u092c\u0948\u094b\u0955\u095a\u095f\u096a\u0975\u097a\u0986\u098a\u098f\u0995\u099d\u09a3\u09a8\u09af\u09b4\u09be\u09c0\u09c6\u09cb\u09d0\u09d7\u09df"
+                + "\u09ec\u09f2\u09f8\u09fb\u0a05\u0a0d\u0a15\u0a17\u0a18\u0a1c\u0a23\u0a2a\u0a34\u0a38\u0a3e\u0a43\u0a4a\u0a4f\u0a53\u0a5a\u0a61\u0a65\u0a6a\u0a70\u0a77\u0a7a\u0a7e\u0a84\u0a90\u0a93\u0a96\u0a99"
+                + "\u0a9c";
+
+        /**
+         * 使用各个关键字的emoji id，按关键字分组
+         */
+        static final String IDS = "MNN\177\u00b76!.\134\u00c6+\u00bb\u0089\u00a7\u0089UVWX\u009d\u00aa]\177\u008a\u00a2\u00a2\u0087oo\003\016\u0083"
+                + "z\u00c7ii9\u00a1\u00a1ss\u00b3\u00b3\u00b2yS}\u00b1\u00b9\u00bb<=>?@ABCD\u0093YYx\u0089"
+                + "\u0082~\134\134\010\014%?ll\u00be\u00be\032\033\034\u00c1\032\u00c7$3\u00a8\u00a8(__^\u0090|j\025\027\025"
+                + "\027BB\u00c6\u00aci&b/\u00c3\u0080\u0080\023\031\031N**\u0098\u008eNV\u0094\u0094\u00bf\u00c2\u0084\u00b8EFG8"
+                + "\013\000\003\006\010\012\014\017%=>?J\000\001\002\003\004\005\006\007\010\011\012\013\014\015\016\017\020\021\022"
+                + "\023\024\025\026\027\030\031\032\033\034\035\036\037 !\042#$%&'()*+,-./012"
+                + "345678<=>?@ABCD`adg\u008f\u0090\u0091\u0092\u0093\u0094\u0096\u0097\u0098\u0099\u009a\u009b\u009c"
+                + "\u009d\u009e~ \037H\u00b8\u00b8\u0086QP]\016Z&\u009a-h\u0080\u0080\u00c3`a:aqq1\002\017\002\017"
+                + "=\u00a3\u00a2e6y\u009bOPRSTcYZ\134\000\001cFF\006>_nopqrs\u00aa\u00c5"
+                + "\u00c6\006>\u00aat\u00c4\u00afSc\u00b2\u00b3\u00c0Y/\u0096H4||/UVWX[bb6\026CC\007"
+                + "^\010\011\012??\010\007\012\u0093\u008c\026%\u00aeX\u00b4\u00b4\u00c0MLmH\u00b0\026#\027\006^_r!\042"
+                + ";\u00a3\u00a4\u00a5\u00a3\u00a4\u00a3\u00bc'dzz'\u00b6EFG\u0097\u0097\u008f\000\001\032\033%-05<L]f"
+                + "f22aa5K\u009f\u00b3\u0085O`O`\u00a5\u00a6\u00a5\u00a6\u00ba\u00bb\u00bb\u00ba\000\001\032\033%-0<0\013"
+                + "\014\015\u009e\u009eRwv\u008b\020O\024\024YZbcghi\u00a2h\u00a2g\u00a3\u0099\u009f\u009f\u00adZVXW"
+                + "[UUVWX[\u00b9\u00b9f\u00ad\u008d\177\u00ad{\042DgDZ\u00a9P\u0098pp\u0092\042\u00b4\u00b1\u00b1\u00bfQ"
+                + "TYYcc\u00bdr\004\021\031ttkW{\u00ae\020\023\025~& A EE\006>}')\030"
+                + "\000@=\001<\000\001\003\004\006\012\017\033%(/6<=>/7@7\u0081\u00c1\u00c1\027|\u00aeI\u00c5"
+                + "\u00c5GG\u00b2\u00b3\u00ab\u0095\u00b5\u00b0\u00b0\u00c3]\013\014\015\015\014\013\u00bd(\u00bd\032\033\034\u00ab\u00ab\033{{\u00ba\026C"
+                + "Z\007MN\u0091\014%\036\036\u00bc\013\014\015\u00bc\u00b2\u00b3#\u0086\u0086\u00a4\u0088\u00c4\u00c4l\u00bf\022MU[R\u00a1R"
+                + "\u00c0uSS\035A\u00bd\u00be\u00bf\u0095\005\005\0135\u009c\u00a0\u00a6\u00a8,@~nnM&\u00c0)";
+
+        /**
+         * 第i个字符为第i个关键字在IDS中的起点，最后一项为IDS的长度
+         */
+        static final String ID_STARTS = "\000\001\002\003\004\005\006\007\010\011\012\013\014\016\017\023\024\025\026\027\030\031\032\033\034\035\037 !\042#$"
+                + "%&'()*+,-./2<=>?@ABCDIJKLPQRSTUV"
+                + "WXYZ[\134]_bcdefghijklnopqrstvwxyz{"
+                + "|\177\u0080\u0081\u008d\u00e2\u00e3\u00e4\u00e5\u00e7\u00e8\u00e9\u00ea\u00eb\u00ec\u00ed\u00ee\u00ef\u00f0\u00f2\u00f3\u00f4\u00f5\u00f7\u00f8\u00f9\u00fa\u00fb\u00fc\u00fe\u0101\u0102"
+                + "\u0103\u0104\u0105\u0106\u0107\u010d\u0110\u0113\u0114\u0115\u0121\u0122\u0123\u0124\u0126\u0127\u0128\u0129\u012c\u012d\u012e\u012f\u0130\u0131\u0132\u0133\u0134\u0139\u013a\u013b\u013c\u013e"
+                + "\u013f\u0141\u0145\u0146\u0147\u0148\u0149\u014a\u014b\u014c\u014d\u014e\u014f\u0150\u0151\u0152\u0153\u0154\u0155\u0156\u0157\u0158\u0159\u015a\u015e\u0160\u0164\u0165\u0166\u0167\u0168\u0169"
+                + "\u016a\u016b\u016c\u016d\u016e\u0172\u0173\u0174\u017e\u017f\u0180\u0181\u0182\u0183\u0184\u0185\u0186\u0189\u018a\u018c\u018d\u018e\u0190\u0191\u0192\u0194\u0195\u0196\u019e\u019f\u01a2\u01a3"
+                + "\u01a4\u01a5\u01a6\u01a7\u01a8\u01a9\u01aa\u01ab\u01ac\u01b4\u01b5\u01b6\u01b7\u01b8\u01ba\u01bb\u01bc\u01bd\u01be\u01bf\u01c0\u01c1\u01c2\u01c7\u01c8\u01c9\u01ca\u01cb\u01cc\u01cd\u01ce\u01cf"
+                + "\u01d2\u01d3\u01d4\u01d5\u01d6\u01d7\u01d8\u01d9\u01da\u01db\u01dc\u01dd\u01de\u01df\u01e1\u01e2\u01e4\u01e5\u01e6\u01e7\u01e8\u01ea\u01eb\u01ec\u01ed\u01ee\u01ef\u01f0\u01f3\u01f4\u01f5\u01f6"
+                + "\u01f7\u01f8\u01f9\u01fa\u01fc\u01fd\u01fe\u01ff\u0200\u0202\u0203\u0204\u0205\u0214\u0215\u0216\u0217\u0218\u0219\u021a\u021b\u021c\u021d\u021e\u021f\u0220\u0221\u0222\u0223\u0225\u0226\u0227"
+                + "\u0228\u0229\u022a\u022b\u022c\u022f\u0230\u0231\u0232\u0233\u0234\u0235\u0239\u023a\u023b\u023c\u023d\u023e\u0240\u0241\u0242\u0244\u0245\u0247\u0248\u0249\u024a\u024d\u024e\u0250\u0251\u0252"
+                + "\u0253\u0254\u0255\u0256\u0257\u0259\u025a\u025d\u025e\u025f\u0260\u0261\u0262\u0263\u0264\u0266\u0269\u026a\u026b\u026d\u026e\u026f\u0271\u0272\u0273\u0274\u0275\u0276\u0277\u0278\u0279\u027a"
+                + "\u027b";
+    }
+
+    /**
+     * :shortcode:表，短码不含冒号，按字典序排列
+     */
+    static final class Shortcodes {
+
+        private Shortcodes() {
+        }
+
+        /**
+         * 短码的最大长度
+         */
+        static final int MAX_LENGTH = 32;
+
+        /**
+         * 所有短码依次拼接
+         */
+        static final String NAMES = "+1-18ballambulanceangryanguished"
+                + "astonishedbabybaby_chickbearbird"
+                + "blowfishblue_heartblushboarboomb"
+                + "owboybride_with_veilbroken_heart"
+                + "bullettrain_frontbullettrain_sid"
+                + "ecakecatcherrieschickenclapclose"
+                + "d_umbrellacloudcold_sweatconfoun"
+                + "dedconfusedconstruction_workerco"
+                + "uple_with_heartcouplekisscowcrow"
+                + "ncrycrying_cat_facecupiddashdisa"
+                + "ppointeddisappointed_relieveddiz"
+                + "zy_facedogdolphindragon_faceeare"
+                + "lephantexpressionlesseyesfearful"
+                + "firefire_enginefistflushedfrogfr"
+                + "owninggame_diegemgirlgreen_heart"
+                + "grimacinggringrinninghaircuthamb"
+                + "urgerhamsterhandhear_no_evilhear"
+                + "theart_eyesheart_eyes_catheartbe"
+                + "athelicopterhorsehushedicecreami"
+                + "nformation_desk_personinnocentjo"
+                + "yjoy_catkissingkissing_catkissin"
+                + "g_closed_eyeskissing_heartkissin"
+                + "g_smiling_eyeskoalalaughinglight"
+                + "_raillipslipstickmanman_with_gua"
+                + "_pi_maoman_with_turbanmaskmassag"
+                + "emeat_on_boneminibusmonkey_facem"
+                + "ousemusclenail_careneutral_facen"
+                + "o_goodno_mouthnoseoctopusok_hand"
+                + "ok_womanolder_manolder_womanonco"
+                + "ming_automobileoncoming_taxiopen"
+                + "_mouthpanda_facepeachpearpenguin"
+                + "pensivepersevereperson_frowningp"
+                + "erson_with_blond_hairperson_with"
+                + "_pouting_facepigpig_nosepoint_do"
+                + "wnpoint_leftpoint_rightpoint_upp"
+                + "oint_up_2police_carpoodlepooppou"
+                + "ting_catprayprincesspunchpurple_"
+                + "heartrabbitragerailway_carraised"
+                + "_handsraising_handrelaxedrelieve"
+                + "drevolving_heartsribbonrocketsan"
+                + "tascreamscream_catsee_no_evilsle"
+                + "epingsleepysmilesmile_catsmileys"
+                + "miley_catsmiling_impsmirksmirk_c"
+                + "atsnakesnowflakesobsparklesspark"
+                + "ling_heartspeak_no_evilstationst"
+                + "eam_locomotivestuck_out_tonguest"
+                + "uck_out_tongue_closed_eyesstuck_"
+                + "out_tongue_winking_eyesunglasses"
+                + "sunnysweatsweat_dropssweat_smile"
+                + "sweet_potatotigertired_facetmtri"
+                + "umphtropical_fishturtletwo_heart"
+                + "sumbrellaunamusedvwatermelonwave"
+                + "wearywhalewinkwolfwomanworriedye"
+                + "llow_heartyumzap";
+
+        /**
+         * 第i个字符为第i个短码在NAMES中的起点，最后一项为NAMES的长度
+         */
+        static final String NAME_STARTS = "\000\002\004\011\022\027 *.8<@HRW[_bet\u0080\u0091\u00a1\u00a5\u00a8\u00b0\u00b7\u00bb\u00ca\u00cf\u00d9\u00e3"
+                + "\u00eb\u00fe\u010f\u0119\u011c\u0121\u0124\u0133\u0138\u013c\u0148\u015d\u0167\u016a\u0171\u017c\u017f\u0187\u0195\u0199\u01a0\u01a4\u01af\u01b3\u01ba\u01be\u01c6\u01ce\u01d1\u01d5\u01e0\u01e9"
+                + "\u01ed\u01f5\u01fc\u0205\u020c\u0210\u021c\u0221\u022b\u0239\u0242\u024c\u0251\u0257\u025f\u0276\u027e\u0281\u0288\u028f\u029a\u02ad\u02ba\u02ce\u02d3\u02db\u02e5\u02e9\u02f1\u02f4\u0307\u0316"
+                + "\u031a\u0321\u032d\u0334\u033f\u0344\u034a\u0353\u035f\u0366\u036e\u0372\u0379\u0380\u0388\u0391\u039c\u03af\u03bc\u03c6\u03d0\u03d5\u03d9\u03e0\u03e7\u03f0\u03ff\u0415\u042d\u0430\u0438\u0442"
+                + "\u044c\u0457\u045f\u0469\u0473\u0479\u047d\u0488\u048c\u0494\u0499\u04a5\u04ab\u04af\u04ba\u04c6\u04d2\u04d9\u04e1\u04f1\u04f7\u04fd\u0502\u0508\u0512\u051d\u0525\u052b\u0530\u0539\u053f\u0549"
+                + "\u0554\u0559\u0562\u0567\u0570\u0573\u057b\u058a\u0597\u059e\u05ae\u05be\u05da\u05f6\u0600\u0605\u060a\u0615\u0620\u062c\u0631\u063b\u063d\u0644\u0651\u0657\u0661\u0669\u0671\u0672\u067c\u0680"
+                + "\u0685\u068a\u068e\u0692\u0697\u069e\u06aa\u06ad\u06b0";
+
+        /**
+         * 第i个字符为第i个短码对应的emoji id
+         */
+        static final String IDS = "MN\177\u00b7!.+\u00a7\u0089\u009d\u008a\u0087o\003\u0083\u00c7i9\u00a1s\u00b3\u00b2}\u0093x\u0082\134l\u00be\032$3"
+                + "\u00a8_^\u0090j\025B\u00c6\u00ac\023\031*\u0098\u008e\u0094\u00c2\u00848J\037H\u00b8Q\016\u009a-\u0080\u00c3:q1\017"
+                + "\002ey\u009bTFr\006>\u00aa\u00af\u00964|b6\026C\011?\010\007\012\u008c%\u00b4Lm;\u00a3\u00a4'"
+                + "dz\u00b6\u0097\u008f]f2a5K\u0085O`\u00a5\u00a6\u00bb\u00ba0\u009ewv\u008b\020\024h\u00a2g\u0099\u009fVX"
+                + "W[U\u00b9\u008d\u00adDZ\u00a9Pp\u0092\042\u00b1Yc\004\021tk\u00ae~ AE)\030\000=\001</"
+                + "7@\u0081\u00c1\027I\u00c5G\u00b5\u00b0\015\014\013(\u00bd\034\u00ab\033{\u0091\036\u00bc#\u0086\u0088\u00c4\u00bf\022RuS\035"
+                + "\u0095\005\u009c\u00a0,n&\u00c0";
+    }
+
+    /**
+     * 运营商私有区emoji到标准code point的对照表
+     */
+    static final class Carriers {
+
+        private Carriers() {
+        }
+
+        /**
+         * SOFTBANK表第一项对应的私有区字符
+         */
+        static final int SOFTBANK_FIRST = 0xe001;
+
+        /**
+         * 第i个字符为SOFTBANK_FIRST + i的替换序列编号 + 1，0表示没有
+         */
+        static final String SOFTBANK = "\001\002\003\004\005\006\007\010\011\012\013\014\015\016\017\020\021\022\023\024\025\026\027\030\031\032\033\034\035\036\037 "
+                + "!\042#$%&'()*+,-./0123456789:;<=>?@"
+                + "ABCDEFGHIJKLMNOPQRSTUVWXYZ\000\000\000\000\000\000"
+                + "\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000"
+                + "\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000"
+                + "\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000"
+                + "\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000"
+                + "\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000"
+                + "[\134]^_`abcdefghijklmnopqrstuvwxyz"
+                + "{|}~\177\u0080\u0081\u0082\u0083\u0084\u0085\u0086\u0087\u0088\u0089\u008a\u008b\u008c\u008d\u008e\u008f\u0090\u0091\u0092\u0093\u0094\u0095\u0096\u0097\u0098\u0099\u009a"
+                + "\u009b\u009c\u009d\u009e\u009f\u00a0\u00a1\u00a2\u00a3\u00a4\u00a5\u00a6\u00a7\u00a8\u00a9\u00aa\u00ab\u00ac\u00ad\u00ae\u00af\u00b0\u00b1\u00b2\u00b3\u00b4\000\000\000\000\000\000"
+                + "\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000"
+                + "\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000"
+                + "\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000"
+                + "\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000"
+                + "\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000"
+                + "\u00b5\u00b6\u00b7\u00b8\u00b9\u00ba\u00bb\u00bc\u00bd\u00be\u00bf\u00c0\u00c1\u00c2\u00c3\u00c4\u00c5\u00c6\u00c7\u00c8\u00c9\u00ca\u00cb\u00cc\u00cd\u00ce\u00cf\u00d0\u00d1\u00d2\u00d3\u00d4"
+                + "\u00d5\u00d6\u00d7\u00d8\u00d9\u00da\u00db\u00dc\u00dd\u00de\u00df\u00e0\u00e1\u00e2\u00e3\u00e4\u00e5\u00e6\u00e7\u00e8\u00e9\u00ea\u00eb\u00ec\u00ed\u00ee\u00ef\u00f0\u00f1\u00f2\u00f3\u00f4"
+                + "\u00f5\u00f6\u00f7\u00f8\u00f9\u00fa\u00fb\u00fc\u00fd\u00fe\u00ff\u0100\u0101\u0102\u0103\u0104\u0105\u0106\u0107\000\000\000\000\000\000\000\000\000\000\000\000\000"
+                + "\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000"
+                + "\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000"
+                + "\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000"
+                + "\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000"
+                + "\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000"
+                + "\u0108\u0109\u010a\u010b\u010c\u010d\u010e\u010f\u0110\u0111\u0112\u0113\u0114\u0115\u0116\u0117\u0118\u0119\u011a\u011b\u011c\u011d\u011e\u011f\u0120\u0121\u0122\u0123\u0124\u0125\u0126\u0127"
+                + "\u0128\u0129\u012a\u012b\u012c\u012d\u012e\u012f\u0130\u0131\u0132\u0133\u0134\u0135\u0136\u0137\u0138\u0139\u013a\u013b\u013c !\u013d\u013e\u013f\u0140\u0141\u0142\u0143\u0144\u0145"
+                + "\u0146\u0147\u0148\u0149\u014a\u014b\u014c\u014d\u014e\u014f\u0150\u0151\u0152\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000"
+                + "\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000"
+                + "\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000"
+                + "\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000"
+                + "\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000"
+                + "\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000"
+                + "\u0153\u0154\u0155\u0156\u0157\u0158\u0159\u015a\u015b\u015c\u015d\u015e\u015f\u0160\u0161\u0162\u0163\u0164\u0165\u0166\u0167\u0168\u0169\u016a\u016b\u016c\u016d\u016e\u016f\u0170\u0171\u0172"
+                + "\u0173\u0174\u0175\u0176\u0177\u0178\u0179\u017a\u017b\u017c\u017d\u017e\u017f\u0180\u0181\u0182\u0183\u0184\u0185\u0186\u0187\u0188\u0189\u018a\u018b\u018c\u018d\u018e\u018f\u0190\000\u0191"
+                + "\u0192\u0193\u0194\u0195\u0196\u0197\u0198\u0199\u019a\u019b\u019c\u019d\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000"
+                + "\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000"
+                + "\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000"
+                + "\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000"
+                + "\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000"
+                + "\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000"
+                + "\u019e\u019f\u01a0\u01a1\u01a2\u01a3\u01a4\u01a5\u01a6\000\u01a7\u01a8\u01a9\u01aa\u01ab\u01ac\u01ad\u01ae\u01af\u01b0\u01b1\u01b2\u01b3\u01b4\u01b5\u01b6\u01b7\u01b8\u01b9\u01ba\u01bb\u01bc"
+                + "\u01bd\u01be\000\u01bf\u01c0\u01c1\u01c2\u01c3\u01c4\u01c5\u01c6\u01c7\u01c8\u01c9\u01ca\u01cb\u01cc\u01cd\u01ce\u01cf\u01d0\u01d1\u01d2";
+
+        /**
+         * DOCOMO表第一项对应的私有区字符
+         */
+        static final int DOCOMO_FIRST = 0xe63e;
+
+        /**
+         * 第i个字符为DOCOMO_FIRST + i的替换序列编号 + 1，0表示没有
+         */
+        static final String DOCOMO = "JIKH\u0097\u0194\u01d3\u018e\u00f3\u00f4\u00f5\u00f6\u00f7\u00f8\u00f9\u00fa\u00fb\u00fc\u00fd\u00fe\000\026\024\025\030\023\u017c\u008c\u01d4\036\u0186\u0187"
+                + "\033\u0180\u00b3\u00b6\03568\u00ad\u00af\u00a7\u00ae\u00b2\u00b0:\u00a9\u00a8\u00abCEDGz\u0098\u011a<=\u00ea\u01d5\u0111\u019f\u01a0\u01d6"
+                + "\177\u0115\u00bc\010\u012a\u00a2\u011bl\u0150\011\012\u0108\u0084\u01d7\u0080\u00c0\u00c2\u00c1\u00c3\u016b\u016d\020\021\022\u00ec\u00eb\u01d1\007\u01d8\u00be\u01d9\u01da"
+                + "\u01dbL\u01dcRO\0343\u00ed\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000"
+                + "\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000^]\013\000\000\u01dd\000\000\000\u01de\u00dd?\u01df\u01e0n\u00c6"
+                + "\u01e1\000\u00c4\000\u00d0\u00d1\u00d2\u00d3\u00d4\u00d5\u00d6\u00d7\u00d8\u00d9\042\u012e#\u01e2WYX\u0159\u01e3\u01e4>}\u01e5\003\u0135i\u013b\015"
+                + "\u0118\u012d\u01e6\u0096!\u01e7\u01e8\u01e9\u0138\u01ea\u0137\u01eb\u01ec\u0101\000\000\u01ed\u01ee\u0123\u01ef\u01f0\u012c\u01f1\u0089\014\u01f2\u01f3\u01f4h4\u01f5\u0090"
+                + "\u013d\u01f6\u0155\u015c\u01f7b\u0168\u0160`\016_\u0157\u01f8\u0158\u0154\u0163\u0165\u01f9\u01fa\u0102\u01d2o\u011c\u01fb\u0103\u0106\u01fc\u00df\u01fd\u00de\u01fe\u01ff"
+                + "\u00b1\u0190;j\u0200\u010b\u0201\u014a\u0202r0\u0147F\u0112\u0145\u013e\u0203\u0204U\031\u0205\u0156\032e\u0206a";
+
+        /**
+         * KDDI表第一项对应的私有区字符
+         */
+        static final int KDDI_FIRST = 0xe469;
+
+        /**
+         * 第i个字符为KDDI_FIRST + i的替换序列编号 + 1，0表示没有
+         */
+        static final String KDDI = "\u0194\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000H\000\u0097J"
+                + "\000\000\000KI\000\u00f3\u00f4\u00f5\u00f6\u00f7\u00f8\u00f9\u00fa\u00fb\u00fc\u00fd\u00fe\000\000\000\000\000\000\000\000\000\000\000\000\000\000"
+                + "\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000"
+                + "\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000"
+                + "\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000"
+                + "\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000"
+                + "\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000"
+                + "\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000"
+                + "\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000"
+                + "\000\000\000\000\000\000\000\000\000\000\000\000\000\000\000\u01d3";
+
+        /**
+         * 所有替换序列依次拼接(UTF-16)
+         */
+        static final String REPLACEMENTS = "\ud83d\udc66\ud83d\udc67\ud83d\udc8b\ud83d\udc68\ud83d\udc69\ud83d\udc5a\ud83d\udc5f\ud83d\udcf7\u260e\ud83d\udcf1\ud83d\udce0\ud83d\udcbb\ud83d\udc4a\ud83d\udc4d\u261d\u270a\u270c\u270b\ud83c"
+                + "\udfbf\u26f3\ud83c\udfbe\u26be\ud83c\udfc4\u26bd\ud83d\udc1f\ud83d\udc34\ud83d\ude97\u26f5\u2708\ud83d\ude83\ud83d\ude85\u2753\u2757\u2764\ud83d\udc94\ud83d\udd50\ud83d\udd51\ud83d\udd52\ud83d"
+                + "\udd53\ud83d\udd54\ud83d\udd55\ud83d\udd56\ud83d\udd57\ud83d\udd58\ud83d\udd59\ud83d\udd5a\ud83d\udd5b\ud83c\udf38\ud83d\udd31\ud83c\udf39\ud83c\udf84\ud83d\udc8d\ud83d\udc8e\ud83c\udfe0\u26ea"
+                + "\ud83c\udfe2\ud83d\ude89\u26fd\ud83d\uddfb\ud83c\udfa4\ud83c\udfa5\ud83c\udfb5\ud83d\udd11\ud83c\udfb7\ud83c\udfb8\ud83c\udfba\ud83c\udf74\ud83c\udf78\u2615\ud83c\udf70\ud83c\udf7a\u26c4\u2601"
+                + "\u2600\u2614\ud83c\udf19\ud83c\udf04\ud83d\udc7c\ud83d\udc31\ud83d\udc2f\ud83d\udc3b\ud83d\udc36\ud83d\udc2d\ud83d\udc33\ud83d\udc27\ud83d\ude0a\ud83d\ude03\ud83d\ude1e\ud83d\ude20\ud83d\udca9"
+                + "\ud83d\udceb\ud83d\udcee\ud83d\udce9\ud83d\udcf2\ud83d\ude1c\ud83d\ude0d\ud83d\ude31\ud83d\ude13\ud83d\udc35\ud83d\udc19\ud83d\udc37\ud83d\udc7d\ud83d\ude80\ud83d\udc51\ud83d\udca1\ud83c\udf40"
+                + "\ud83d\udc8f\ud83c\udf81\ud83d\udd2b\ud83d\udd0d\ud83c\udfc3\ud83d\udd28\ud83c\udf86\ud83c\udf41\ud83c\udf42\ud83d\udc7f\ud83d\udc7b\ud83d\udc80\ud83d\udd25\ud83d\udcbc\ud83d\udcba\ud83c\udf54"
+                + "\u26f2\u26fa\u2668\ud83c\udfa1\ud83c\udfab\ud83d\udcbf\ud83d\udcc0\ud83d\udcfb\ud83d\udcfc\ud83d\udcfa\ud83d\udc7e\u303d\ud83c\udc04\ud83c\udd9a\ud83d\udcb0\ud83c\udfaf\ud83c\udfc6\ud83c\udfc1"
+                + "\ud83c\udfb0\ud83d\udc0e\ud83d\udea4\ud83d\udeb2\ud83d\udea7\ud83d\udeb9\ud83d\udeba\ud83d\udebc\ud83d\udc89\ud83d\udca4\u26a1\ud83d\udc60\ud83d\udec0\ud83d\udebd\ud83d\udd0a\ud83d\udce2\ud83c"
+                + "\udf8c\ud83d\udd12\ud83d\udd13\ud83c\udf06\ud83c\udf73\ud83d\udcd6\ud83d\udcb1\ud83d\udcb9\ud83d\udce1\ud83d\udcaa\ud83c\udfe6\ud83d\udea5\ud83c\udd7f\ud83d\ude8f\ud83d\udebb\ud83d\udc6e\ud83c"
+                + "\udfe3\ud83c\udfe7\ud83c\udfe5\ud83c\udfea\ud83c\udfeb\ud83c\udfe8\ud83d\ude8c\ud83d\ude95\ud83d\udeb6\ud83d\udea2\ud83c\ude01\ud83d\udc9f\u2734\u2733\ud83d\udd1e\ud83d\udead\ud83d\udd30\u267f"
+                + "\ud83d\udcf6\u2665\u2666\u2660\u2663#\u20e3\u27bf\ud83c\udd95\ud83c\udd99\ud83c\udd92\ud83c\ude36\ud83c\ude1a\ud83c\ude37\ud83c\ude38\ud83d\udd34\ud83d\udd32\ud83d\udd331\u20e32"
+                + "\u20e33\u20e34\u20e35\u20e36\u20e37\u20e38\u20e39\u20e30\u20e3\ud83c\ude50\ud83c\ude39\ud83c\ude02\ud83c\udd94\ud83c\ude35\ud83c\ude33\ud83c\ude2f\ud83c"
+                + "\ude3a\ud83d\udc46\ud83d\udc47\ud83d\udc48\ud83d\udc49\u2b06\u2b07\u27a1\u2b05\u2197\u2196\u2198\u2199\u25b6\u25c0\u23e9\u23ea\ud83d\udd2f\u2648\u2649\u264a\u264b\u264c\u264d\u264e\u264f\u2650"
+                + "\u2651\u2652\u2653\u26ce\ud83d\udd1d\ud83c\udd97\u00a9\u00ae\ud83d\udcf3\ud83d\udcf4\u26a0\ud83d\udc81\ud83d\udcdd\ud83d\udc54\ud83c\udf3a\ud83c\udf37\ud83c\udf3b\ud83d\udc90\ud83c\udf34\ud83c"
+                + "\udf35\ud83d\udebe\ud83c\udfa7\ud83c\udf76\ud83c\udf7b\u3297\ud83d\udeac\ud83d\udc8a\ud83c\udf88\ud83d\udca3\ud83c\udf89\u2702\ud83c\udf80\u3299\ud83d\udcbd\ud83d\udce3\ud83d\udc52\ud83d\udc57"
+                + "\ud83d\udc61\ud83d\udc62\ud83d\udc84\ud83d\udc85\ud83d\udc86\ud83d\udc87\ud83d\udc88\ud83d\udc58\ud83d\udc59\ud83d\udc5c\ud83c\udfac\ud83d\udd14\ud83c\udfb6\ud83d\udc93\ud83d\udc97\ud83d\udc98"
+                + "\ud83d\udc99\ud83d\udc9a\ud83d\udc9b\ud83d\udc9c\u2728\u2b50\ud83d\udca8\ud83d\udca6\u2b55\u274c\ud83d\udca2\ud83c\udf1f\ud83c\udf75\ud83c\udf5e\ud83c\udf66\ud83c\udf5f\ud83c\udf61\ud83c\udf58"
+                + "\ud83c\udf5a\ud83c\udf5d\ud83c\udf5c\ud83c\udf5b\ud83c\udf59\ud83c\udf62\ud83c\udf63\ud83c\udf4e\ud83c\udf4a\ud83c\udf53\ud83c\udf49\ud83c\udf45\ud83c\udf46\ud83c\udf82\ud83c\udf71\ud83c\udf72"
+                + "\ud83d\ude25\ud83d\ude0f\ud83d\ude14\ud83d\ude01\ud83d\ude09\ud83d\ude23\ud83d\ude16\ud83d\ude2a\ud83d\ude1d\ud83d\ude0c\ud83d\ude28\ud83d\ude37\ud83d\ude33\ud83d\ude12\ud83d\ude30\ud83d\ude32"
+                + "\ud83d\ude2d\ud83d\ude02\ud83d\ude22\u263a\ud83d\ude04\ud83d\ude21\ud83d\ude1a\ud83d\ude18\ud83d\udc40\ud83d\udc43\ud83d\udc42\ud83d\udc44\ud83d\ude4f\ud83d\udc4b\ud83d\udc4f\ud83d\udc4c\ud83d"
+                + "\udc4e\ud83d\udc50\ud83d\ude45\ud83d\ude46\ud83d\udc91\ud83d\ude47\ud83d\ude4c\ud83d\udc6b\ud83d\udc6f\ud83c\udfc0\ud83c\udfc8\ud83c\udfb1\ud83c\udfca\ud83d\ude99\ud83d\ude9a\ud83d\ude92\ud83d"
+                + "\ude91\ud83d\ude93\ud83c\udfa2\ud83d\ude87\ud83d\ude84\ud83c\udf8d\ud83d\udc9d\ud83c\udf8e\ud83c\udf92\ud83c\udf93\ud83c\udf8f\ud83c\udf02\ud83d\udc70\ud83c\udf0a\ud83c\udf87\ud83d\udc1a\ud83c"
+                + "\udf90\ud83c\udf00\ud83c\udf3e\ud83c\udf83\ud83c\udf91\ud83c\udf43\ud83c\udf85\ud83c\udf05\ud83c\udf07\ud83c\udf03\ud83c\udf08\ud83c\udfe9\ud83c\udfa8\ud83c\udfa9\ud83c\udfec\ud83c\udfef\ud83c"
+                + "\udff0\ud83c\udfa6\ud83c\udfed\ud83d\uddfc\ud83c\uddef\ud83c\uddf5\ud83c\uddfa\ud83c\uddf8\ud83c\uddeb\ud83c\uddf7\ud83c\udde9\ud83c\uddea\ud83c\uddee\ud83c\uddf9\ud83c\uddec\ud83c\udde7\ud83c"
+                + "\uddea\ud83c\uddf8\ud83c\uddf7\ud83c\uddfa\ud83c\udde8\ud83c\uddf3\ud83c\uddf0\ud83c\uddf7\ud83d\udc71\ud83d\udc72\ud83d\udc73\ud83d\udc74\ud83d\udc75\ud83d\udc76\ud83d\udc77\ud83d\udc78\ud83d"
+                + "\uddfd\ud83d\udc82\ud83d\udc83\ud83d\udc2c\ud83d\udc26\ud83d\udc20\ud83d\udc39\ud83d\udc1b\ud83d\udc18\ud83d\udc28\ud83d\udc12\ud83d\udc11\ud83d\udc3a\ud83d\udc2e\ud83d\udc30\ud83d\udc0d\ud83d"
+                + "\udc14\ud83d\udc17\ud83d\udc2b\ud83d\udc38\ud83c\udd70\ud83c\udd71\ud83c\udd8e\ud83c\udd7e\ud83d\udc63\u2122\ud83c\udf01\ud83d\udcdf\ud83c\udfa0\ud83c\udfaa\ud83c\udfae\ud83d\udc53\ud83c\udf11"
+                + "\ud83c\udf14\ud83c\udf13\ud83c\udf15\u2709\ud83c\udd93\u21a9\ud83c\udd91\ud83d\udea9\ud83d\udc95\ud83d\ude35\u2934\ud83d\udca0\u2935\u2049\u203c\ud83d\udca5\ud83d\udca7\u3030\u27b0\ud83d\udc55"
+                + "\ud83d\udc5b\ud83d\udc56\ud83c\udfc2\ud83d\udeaa\ud83d\udc8c\ud83d\udd27\u270f\u23f3\u231a\ud83d\ude05\ud83d\ude06\ud83c\udd96\ud83d\udcce\u267b\ud83c\ude32\ud83c\ude34\u2194\u2195\ud83c\udf52"
+                + "\ud83c\udf4c\ud83c\udf31\ud83d\udc0c\ud83d\udc24\ud83d\ude0b\ud83c\udf77";
+
+        /**
+         * 第i个字符为第i个替换序列在REPLACEMENTS中的起点，最后一项为REPLACEMENTS的长度
+         */
+        static final String REPLACEMENT_STARTS = "\000\002\004\006\010\012\014\016\020\021\023\025\027\031\033\034\035\036\037!\042$%'(*,./024"
+                + "5679;=?ACEGIKMOQSUWY[]_`bdegikmo"
+                + "qsuwyz|~\177\u0080\u0081\u0082\u0084\u0086\u0088\u008a\u008c\u008e\u0090\u0092\u0094\u0096\u0098\u009a\u009c\u009e\u00a0\u00a2\u00a4\u00a6\u00a8\u00aa"
+                + "\u00ac\u00ae\u00b0\u00b2\u00b4\u00b6\u00b8\u00ba\u00bc\u00be\u00c0\u00c2\u00c4\u00c6\u00c8\u00ca\u00cc\u00ce\u00d0\u00d2\u00d4\u00d6\u00d8\u00da\u00dc\u00de\u00e0\u00e1\u00e2\u00e3\u00e5\u00e7"
+                + "\u00e9\u00eb\u00ed\u00ef\u00f1\u00f3\u00f4\u00f6\u00f8\u00fa\u00fc\u00fe\u0100\u0102\u0104\u0106\u0108\u010a\u010c\u010e\u0110\u0112\u0114\u0115\u0117\u0119\u011b\u011d\u011f\u0121\u0123\u0125"
+                + "\u0127\u0129\u012b\u012d\u012f\u0131\u0133\u0135\u0137\u0139\u013b\u013d\u013f\u0141\u0143\u0145\u0147\u0149\u014b\u014d\u014f\u0151\u0153\u0155\u0157\u0158\u0159\u015b\u015d\u015f\u0160\u0162"
+                + "\u0163\u0164\u0165\u0166\u0168\u0169\u016b\u016d\u016f\u0171\u0173\u0175\u0177\u0179\u017b\u017d\u017f\u0181\u0183\u0185\u0187\u0189\u018b\u018d\u018f\u0191\u0193\u0195\u0197\u0199\u019b\u019d"
+                + "\u019f\u01a1\u01a3\u01a5\u01a7\u01a9\u01aa\u01ab\u01ac\u01ad\u01ae\u01af\u01b0\u01b1\u01b2\u01b3\u01b4\u01b5\u01b7\u01b8\u01b9\u01ba\u01bb\u01bc\u01bd\u01be\u01bf\u01c0\u01c1\u01c2\u01c3\u01c4"
+                + "\u01c6\u01c8\u01c9\u01ca\u01cc\u01ce\u01cf\u01d1\u01d3\u01d5\u01d7\u01d9\u01db\u01dd\u01df\u01e1\u01e3\u01e5\u01e7\u01e9\u01ea\u01ec\u01ee\u01f0\u01f2\u01f4\u01f5\u01f7\u01f8\u01fa\u01fc\u01fe"
+                + "\u0200\u0202\u0204\u0206\u0208\u020a\u020c\u020e\u0210\u0212\u0214\u0216\u0218\u021a\u021c\u021e\u0220\u0222\u0224\u0226\u0228\u0229\u022a\u022c\u022e\u022f\u0230\u0232\u0234\u0236\u0238\u023a"
+                + "\u023c\u023e\u0240\u0242\u0244\u0246\u0248\u024a\u024c\u024e\u0250\u0252\u0254\u0256\u0258\u025a\u025c\u025e\u0260\u0262\u0264\u0266\u0268\u026a\u026c\u026e\u0270\u0272\u0274\u0276\u0278\u027a"
+                + "\u027c\u027e\u0280\u0282\u0284\u0286\u0287\u0289\u028b\u028d\u028f\u0291\u0293\u0295\u0297\u0299\u029b\u029d\u029f\u02a1\u02a3\u02a5\u02a7\u02a9\u02ab\u02ad\u02af\u02b1\u02b3\u02b5\u02b7\u02b9"
+                + "\u02bb\u02bd\u02bf\u02c1\u02c3\u02c5\u02c7\u02c9\u02cb\u02cd\u02cf\u02d1\u02d3\u02d5\u02d7\u02d9\u02db\u02dd\u02df\u02e1\u02e3\u02e5\u02e7\u02e9\u02eb\u02ed\u02ef\u02f1\u02f3\u02f5\u02f7\u02f9"
+                + "\u02fb\u02fd\u02ff\u0301\u0303\u0305\u0307\u030b\u030f\u0313\u0317\u031b\u031f\u0323\u0327\u032b\u032f\u0331\u0333\u0335\u0337\u0339\u033b\u033d\u033f\u0341\u0343\u0345\u0347\u0349\u034b\u034d"
+                + "\u034f\u0351\u0353\u0355\u0357\u0359\u035b\u035d\u035f\u0361\u0363\u0365\u0367\u0369\u036b\u036d\u036f\u0371\u0372\u0374\u0376\u0378\u037a\u037c\u037e\u0380\u0382\u0384\u0386\u0387\u0389\u038a"
+                + "\u038c\u038e\u0390\u0392\u0393\u0395\u0396\u0397\u0398\u039a\u039c\u039d\u039e\u03a0\u03a2\u03a4\u03a6\u03a8\u03aa\u03ac\u03ad\u03ae\u03af\u03b1\u03b3\u03b5\u03b7\u03b8\u03ba\u03bc\u03bd\u03be"
+                + "\u03c0\u03c2\u03c4\u03c6\u03c8\u03ca\u03cc";
+    }
+}
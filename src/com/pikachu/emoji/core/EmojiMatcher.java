@@ -0,0 +1,248 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2015 Umeng, Inc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.pikachu.emoji.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 以code point为键的压缩trie，从给定位置开始一次前向扫描找出最长的emoji序列（ZWJ组合、肤色、
+ * VS16、国旗、keycap等），匹配过程中不分配内存。
+ * 
+ * @author BinGoBinBin
+ */
+public final class EmojiMatcher {
+
+    /**
+     * 没有匹配时节点对应的值
+     */
+    public static final int NO_VALUE = -1;
+
+    private static final int ROOT = 0;
+
+    /**
+     * 节点i的子节点位于mChildCodePoints/mChildNodes的[mChildStart[i], mChildStart[i + 1])区间，
+     * 并按code point升序排列
+     */
+    private final int[] mChildStart;
+    private final int[] mChildCodePoints;
+    private final int[] mChildNodes;
+    private final int[] mValues;
+    private final int mMaxLength;
+    /**
+     * 根节点的子节点很多，首code point通过常数时间的索引查找
+     */
+    private final CodePointIndex mRootIndex;
+
+    private EmojiMatcher(int[] childStart, int[] childCodePoints, int[] childNodes, int[] values,
+            int maxLength) {
+        int rootChildren = childStart[ROOT + 1];
+        int[] rootCodePoints = new int[rootChildren];
+        int[] rootNodes = new int[rootChildren];
+        System.arraycopy(childCodePoints, 0, rootCodePoints, 0, rootChildren);
+        System.arraycopy(childNodes, 0, rootNodes, 0, rootChildren);
+        mRootIndex = BlockCodePointIndex.build(rootCodePoints, rootNodes);
+        mChildStart = childStart;
+        mChildCodePoints = childCodePoints;
+        mChildNodes = childNodes;
+        mValues = values;
+        mMaxLength = maxLength;
+    }
+
+    /**
+     * 从start开始查找最长的emoji序列，不会越过end.</br>
+     * 
+     * @param text 文本
+     * @param start 起始位置
+     * @param end 结束位置(不包含)
+     * @param out 匹配成功时写入(start, end, value)三元组
+     * @param offset 三元组在out中的起始下标
+     * @return 匹配序列的结束位置，没有匹配时返回-1
+     */
+    public int match(CharSequence text, int start, int end, int[] out, int offset) {
+        int node = ROOT;
+        int matchEnd = -1;
+        int matchValue = NO_VALUE;
+        int i = start;
+        while (i < end) {
+            char c = text.charAt(i);
+            int codePoint = c;
+            int count = 1;
+            if (Character.isHighSurrogate(c) && i + 1 < end) {
+                char low = text.charAt(i + 1);
+                if (Character.isLowSurrogate(low)) {
+                    codePoint = Character.toCodePoint(c, low);
+                    count = 2;
+                }
+            }
+            node = node == ROOT ? mRootIndex.get(codePoint) : child(node, codePoint);
+            if (node < 0) {
+                break;
+            }
+            i += count;
+            if (mValues[node] != NO_VALUE) {
+                matchEnd = i;
+                matchValue = mValues[node];
+            }
+        }
+
+        if (matchEnd >= 0) {
+            out[offset] = start;
+            out[offset + 1] = matchEnd;
+            out[offset + 2] = matchValue;
+        }
+        return matchEnd;
+    }
+
+    /**
+     * 所有序列的首code point，按升序排列
+     */
+    public int[] getStartCodePoints() {
+        int[] starts = new int[mChildStart[ROOT + 1]];
+        System.arraycopy(mChildCodePoints, 0, starts, 0, starts.length);
+        return starts;
+    }
+
+    /**
+     * 最长序列包含的code point个数
+     */
+    public int getMaxLength() {
+        return mMaxLength;
+    }
+
+    private int child(int node, int codePoint) {
+        int low = mChildStart[node];
+        int high = mChildStart[node + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midCodePoint = mChildCodePoints[mid];
+            if (midCodePoint < codePoint) {
+                low = mid + 1;
+            } else if (midCodePoint > codePoint) {
+                high = mid - 1;
+            } else {
+                return mChildNodes[mid];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 构建{@link EmojiMatcher}，添加完所有序列后调用{@link #build()}编译成紧凑的数组形式
+     */
+    public static final class Builder {
+
+        private final List<Node> mNodes = new ArrayList<Node>();
+        private int mMaxLength = 0;
+
+        public Builder() {
+            mNodes.add(new Node());
+        }
+
+        /**
+         * 添加一个emoji序列，重复添加时后者覆盖前者.</br>
+         * 
+         * @param value 序列对应的值
+         * @param codePoints 序列的code point
+         * @return
+         */
+        public Builder add(int value, int... codePoints) {
+            Node node = mNodes.get(ROOT);
+            for (int codePoint : codePoints) {
+                Node next = node.find(codePoint);
+                if (next == null) {
+                    next = new Node();
+                    next.mIndex = mNodes.size();
+                    mNodes.add(next);
+                    node.mChildren.add(new Edge(codePoint, next));
+                }
+                node = next;
+            }
+            node.mValue = value;
+            mMaxLength = Math.max(mMaxLength, codePoints.length);
+            return this;
+        }
+
+        public EmojiMatcher build() {
+            int nodeCount = mNodes.size();
+            int[] childStart = new int[nodeCount + 1];
+            int[] childCodePoints = new int[nodeCount - 1];
+            int[] childNodes = new int[nodeCount - 1];
+            int[] values = new int[nodeCount];
+            int edge = 0;
+            for (int i = 0; i < nodeCount; i++) {
+                Node node = mNodes.get(i);
+                values[i] = node.mValue;
+                childStart[i] = edge;
+                node.sortChildren();
+                for (Edge child : node.mChildren) {
+                    childCodePoints[edge] = child.mCodePoint;
+                    childNodes[edge] = child.mNode.mIndex;
+                    edge++;
+                }
+            }
+            childStart[nodeCount] = edge;
+            return new EmojiMatcher(childStart, childCodePoints, childNodes, values, mMaxLength);
+        }
+    }
+
+    private static final class Node {
+        int mIndex;
+        int mValue = NO_VALUE;
+        List<Edge> mChildren = new ArrayList<Edge>(1);
+
+        Node find(int codePoint) {
+            for (Edge edge : mChildren) {
+                if (edge.mCodePoint == codePoint) {
+                    return edge.mNode;
+                }
+            }
+            return null;
+        }
+
+        void sortChildren() {
+            // 子节点数量很少，插入排序即可
+            for (int i = 1; i < mChildren.size(); i++) {
+                Edge edge = mChildren.get(i);
+                int j = i - 1;
+                while (j >= 0 && mChildren.get(j).mCodePoint > edge.mCodePoint) {
+                    mChildren.set(j + 1, mChildren.get(j));
+                    j--;
+                }
+                mChildren.set(j + 1, edge);
+            }
+        }
+    }
+
+    private static final class Edge {
+        final int mCodePoint;
+        final Node mNode;
+
+        Edge(int codePoint, Node node) {
+            mCodePoint = codePoint;
+            mNode = node;
+        }
+    }
+}
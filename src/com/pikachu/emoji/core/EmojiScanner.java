@@ -0,0 +1,430 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2015 Umeng, Inc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.pikachu.emoji.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+/**
+ * 不依赖Android的emoji扫描器。扫描结果以(start, end, emojiId)三元组写入调用者提供的int数组，
+ * 扫描过程中不分配内存，数组可以在多次扫描之间复用.
+ * 
+ * @author BinGoBinBin
+ */
+public final class EmojiScanner {
+
+    /**
+     * 每个匹配结果在数组中占用的长度
+     */
+    public static final int STRIDE = 3;
+
+    private static final int MATCH_BUFFER_SIZE = 32;
+    private static final char ZERO_WIDTH_JOINER = '\u200d';
+
+    private static volatile EmojiScanner sDefault;
+
+    private final EmojiMatcher mMatcher;
+
+    /**
+     * BMP中可以作为序列开头的字符，以[mBmpLow, mBmpHigh]区间内的位图表示
+     */
+    private final long[] mBmpStarts;
+    private final int mBmpLow;
+    private final int mBmpHigh;
+    /**
+     * 是否有以辅助平面字符开头的序列
+     */
+    private final boolean mSupplementary;
+
+    public EmojiScanner(EmojiMatcher matcher) {
+        mMatcher = matcher;
+
+        int[] starts = matcher.getStartCodePoints();
+        int low = Integer.MAX_VALUE;
+        int high = -1;
+        boolean supplementary = false;
+        for (int codePoint : starts) {
+            if (codePoint <= Character.MAX_VALUE) {
+                low = Math.min(low, codePoint);
+                high = Math.max(high, codePoint);
+            } else {
+                supplementary = true;
+            }
+        }
+        if (high < 0) {
+            low = high = 0;
+        }
+        mSupplementary = supplementary;
+        mBmpLow = low;
+        mBmpHigh = high;
+        mBmpStarts = new long[((high - low) >> 6) + 1];
+        for (int codePoint : starts) {
+            if (codePoint <= Character.MAX_VALUE) {
+                int bit = codePoint - low;
+                mBmpStarts[bit >> 6] |= 1L << bit;
+            }
+        }
+    }
+
+    /**
+     * 基于{@link EmojiTable}的扫描器，默认不匹配运营商私有区字符，见{@link #setLegacyCarrier(int)}
+     */
+    public static EmojiScanner getDefault() {
+        EmojiScanner scanner = sDefault;
+        return scanner != null ? scanner : DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * 让默认扫描器同时把legacyCarrier运营商的私有区字符识别为emoji，例如显示旧版iOS发送的SoftBank emoji。
+     * 私有区也可能被图标字体等使用，所以默认不开启。应在解析任何文本之前调用，已缓存的解析结果不会更新.</br>
+     * 
+     * @param legacyCarrier {@link CarrierEmoji}中的运营商，-1表示不匹配私有区字符
+     */
+    public static void setLegacyCarrier(int legacyCarrier) {
+        sDefault = new EmojiScanner(EmojiTable.newMatcher(legacyCarrier));
+    }
+
+    /**
+     * 扫描[start, end)区间的emoji，结果依次写入out。out写满时停止扫描，调用者可以从最后一个匹配的end处继续扫描.</br>
+     * 
+     * @param text 文本
+     * @param start 起始位置
+     * @param end 结束位置(不包含)
+     * @param out 结果数组，长度应为{@link #STRIDE}的整数倍
+     * @return 写入的匹配个数
+     */
+    public int scan(CharSequence text, int start, int end, int[] out) {
+        return scanInto(text, start, end, end, out, 0, out.length / STRIDE);
+    }
+
+    /**
+     * 从out的offset处开始写入最多capacity个开始于[start, end)的匹配，匹配可以延伸到limit
+     */
+    private int scanInto(CharSequence text, int start, int end, int limit, int[] out,
+            int offset, int capacity) {
+        int count = 0;
+        int i = start;
+        while (i < end && count < capacity) {
+            char c = text.charAt(i);
+            if (isCandidate(c)) {
+                int matchEnd = mMatcher.match(text, i, limit, out, offset + count * STRIDE);
+                if (matchEnd >= 0) {
+                    count++;
+                    i = matchEnd;
+                    continue;
+                }
+            }
+            if (Character.isHighSurrogate(c) && i + 1 < limit
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                i += 2;
+            } else {
+                i++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 文本[start, end)被修改后增量更新store中的匹配，结果与重新扫描全文相同。
+     * 修改区间向前后各扩展最长序列的code point数，与扩展后的区间重叠或相接的旧匹配被删除并一起重新扫描；
+     * 新的匹配越过区间末尾时，区间继续延伸到被它覆盖的旧匹配之后.</br>
+     * 
+     * @param text 修改后的文本
+     * @param start 修改的起始位置
+     * @param end 插入内容的结束位置
+     * @param store 已有的匹配，与修改前的全文扫描结果一致
+     * @param out 扫描用的缓冲数组，长度应为{@link #STRIDE}的整数倍
+     * @param bounds 长度至少为2的数组，用来保存重新扫描的区间，调用方可以复用同一个数组
+     * @return 新增的匹配个数
+     */
+    public int update(CharSequence text, int start, int end, MatchStore store, int[] out,
+            int[] bounds) {
+        int length = text.length();
+        int maxLength = mMatcher.getMaxLength();
+        bounds[0] = rewind(text, start, maxLength);
+        bounds[1] = advance(text, end, maxLength);
+        store.removeMatches(bounds[0], bounds[1], bounds);
+        int regionEnd = bounds[1];
+
+        int capacity = out.length / STRIDE;
+        int total = 0;
+        int i = bounds[0];
+        while (i < regionEnd) {
+            int scanEnd = regionEnd;
+            int count = scanInto(text, i, scanEnd, length, out, 0, capacity);
+            for (int k = 0; k < count * STRIDE; k += STRIDE) {
+                int matchEnd = out[k + 1];
+                if (matchEnd > regionEnd) {
+                    // 新匹配越过区间，覆盖到的旧匹配也要重新扫描
+                    bounds[0] = regionEnd;
+                    bounds[1] = matchEnd;
+                    store.removeMatches(regionEnd, matchEnd, bounds);
+                    regionEnd = bounds[1];
+                }
+                store.addMatch(out[k], matchEnd, out[k + 2]);
+                i = matchEnd;
+            }
+            total += count;
+            if (count < capacity && i < scanEnd) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * index向前移动count个code point，不停在代理对中间
+     */
+    private static int rewind(CharSequence text, int index, int count) {
+        if (isInsidePair(text, index)) {
+            index--;
+        }
+        while (count-- > 0 && index > 0) {
+            index--;
+            if (isInsidePair(text, index)) {
+                index--;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * index向后移动count个code point，不停在代理对中间
+     */
+    private static int advance(CharSequence text, int index, int count) {
+        int length = text.length();
+        if (isInsidePair(text, index)) {
+            index++;
+        }
+        while (count-- > 0 && index < length) {
+            index++;
+            if (isInsidePair(text, index)) {
+                index++;
+            }
+        }
+        return index;
+    }
+
+    private static boolean isInsidePair(CharSequence text, int index) {
+        return index > 0 && index < text.length()
+                && Character.isLowSurrogate(text.charAt(index))
+                && Character.isHighSurrogate(text.charAt(index - 1));
+    }
+
+    /**
+     * 快速判断[start, end)区间是否可能包含emoji：只检查每个字符是否是代理对的高位或者表中某个序列的首字符。
+     * 返回false时可以确定没有emoji，无需再做扫描和span处理.</br>
+     * 
+     * @param text 文本
+     * @param start 起始位置
+     * @param end 结束位置(不包含)
+     * @return
+     */
+    public boolean hasCandidates(CharSequence text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (isCandidate(text.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 扫描[start, end)区间的全部emoji</br>
+     * 
+     * @return 所有匹配的(start, end, emojiId)三元组，长度为匹配个数乘以{@link #STRIDE}
+     */
+    public int[] scanAll(CharSequence text, int start, int end) {
+        int[] result = new int[MATCH_BUFFER_SIZE * STRIDE];
+        int length = 0;
+        int i = start;
+        while (i < end) {
+            if (result.length - length < MATCH_BUFFER_SIZE * STRIDE) {
+                result = Arrays.copyOf(result, result.length * 2);
+            }
+            int count = scanInto(text, i, end, end, result, length, MATCH_BUFFER_SIZE);
+            length += count * STRIDE;
+            if (count < MATCH_BUFFER_SIZE) {
+                break;
+            }
+            i = result[length - STRIDE + 1];
+        }
+        return Arrays.copyOf(result, length);
+    }
+
+    /**
+     * 把[start, end)分成最多parallelism块，在executor上并行扫描后按位置合并，结果与{@link #scanAll(CharSequence, int, int)}相同。
+     * 块只在{@link #isBoundary(CharSequence, int)}处切分；第一块在调用线程上扫描。扫描期间text不能被修改.</br>
+     * 
+     * @param text 文本
+     * @param start 起始位置
+     * @param end 结束位置(不包含)
+     * @param executor 扫描其余各块的线程池
+     * @param parallelism 块数
+     * @return 所有匹配的(start, end, emojiId)三元组
+     * @throws InterruptedException 等待其他块时被中断
+     */
+    public int[] scanAll(final CharSequence text, int start, int end, Executor executor,
+            int parallelism) throws InterruptedException {
+        int chunkSize = (end - start) / Math.max(1, parallelism) + 1;
+        List<FutureTask<int[]>> tasks = new ArrayList<FutureTask<int[]>>();
+        int firstEnd = findBoundary(text, Math.min(end, start + chunkSize), end);
+        int chunkStart = firstEnd;
+        while (chunkStart < end) {
+            final int from = chunkStart;
+            final int to = findBoundary(text, Math.min(end, from + chunkSize), end);
+            FutureTask<int[]> task = new FutureTask<int[]>(new Callable<int[]>() {
+
+                @Override
+                public int[] call() {
+                    return scanAll(text, from, to);
+                }
+            });
+            executor.execute(task);
+            tasks.add(task);
+            chunkStart = to;
+        }
+
+        int[] first = scanAll(text, start, firstEnd);
+        if (tasks.isEmpty()) {
+            return first;
+        }
+        int[][] chunks = new int[tasks.size() + 1][];
+        chunks[0] = first;
+        int length = first.length;
+        try {
+            for (int i = 0; i < tasks.size(); i++) {
+                chunks[i + 1] = tasks.get(i).get();
+                length += chunks[i + 1].length;
+            }
+        } catch (InterruptedException e) {
+            for (int i = 0; i < tasks.size(); i++) {
+                tasks.get(i).cancel(false);
+            }
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw (Error) cause;
+        }
+        int[] result = new int[length];
+        int offset = 0;
+        for (int[] chunk : chunks) {
+            System.arraycopy(chunk, 0, result, offset, chunk.length);
+            offset += chunk.length;
+        }
+        return result;
+    }
+
+    /**
+     * index处是否是可以切分的字素边界：不在代理对中间，不在ZWJ之后，也不在组合字符、变体选择符、
+     * 肤色修饰、标签和区域指示符之前。emoji序列内部的相邻字符都不满足这个条件，所以在这里切分不会截断匹配；
+     * 辅助平面的emoji之前可以切分，连续的emoji也能分块.</br>
+     * 
+     * @param text 文本
+     * @param index 位置，0 &lt; index &lt; text.length()
+     */
+    public static boolean isBoundary(CharSequence text, int index) {
+        char before = text.charAt(index - 1);
+        char c = text.charAt(index);
+        if (before == ZERO_WIDTH_JOINER || Character.isHighSurrogate(before)
+                || Character.isLowSurrogate(c)) {
+            return false;
+        }
+        if (Character.isHighSurrogate(c)) {
+            return !isExtender(Character.codePointAt(text, index));
+        }
+        switch (Character.getType(c)) {
+            case Character.NON_SPACING_MARK:
+            case Character.ENCLOSING_MARK:
+            case Character.COMBINING_SPACING_MARK:
+            case Character.FORMAT:
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * 只能跟在其他字符之后的辅助平面字符：肤色修饰符、标签和区域指示符(国旗由两个组成)
+     */
+    private static boolean isExtender(int codePoint) {
+        return (codePoint >= 0x1f3fb && codePoint <= 0x1f3ff)
+                || (codePoint >= 0xe0020 && codePoint <= 0xe007f)
+                || (codePoint >= 0x1f1e6 && codePoint <= 0x1f1ff);
+    }
+
+    /**
+     * 从from开始查找第一个边界，没有时返回end
+     */
+    private static int findBoundary(CharSequence text, int from, int end) {
+        for (int i = Math.max(from, 1); i < end; i++) {
+            if (isBoundary(text, i)) {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    private boolean isCandidate(char c) {
+        if (c >= mBmpLow && c <= mBmpHigh) {
+            int bit = c - mBmpLow;
+            if ((mBmpStarts[bit >> 6] & (1L << bit)) != 0) {
+                return true;
+            }
+        }
+        return mSupplementary && Character.isHighSurrogate(c);
+    }
+
+    public EmojiMatcher getMatcher() {
+        return mMatcher;
+    }
+
+    /**
+     * {@link #update(CharSequence, int, int, MatchStore, int[], int[])}操作的匹配集合，例如文本中的emoji span
+     */
+    public interface MatchStore {
+        /**
+         * 删除与[start, end]重叠或相接的匹配，并把bounds[0]、bounds[1]扩展到包含被删除的匹配
+         */
+        public void removeMatches(int start, int end, int[] bounds);
+
+        /**
+         * 添加一个匹配
+         */
+        public void addMatch(int start, int end, int emojiId);
+    }
+
+    private static final class DefaultHolder {
+        static final EmojiScanner INSTANCE = new EmojiScanner(EmojiTable.newMatcher());
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2015 Umeng, Inc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.pikachu.emoji.core;
+
+import java.util.Arrays;
+
+/**
+ * emoji关键字的前缀索引，数据由tools/emoji.txt在构建时生成。关键字按字典序排列，每个查询词用二分查找定位
+ * 第一个以它为前缀的关键字，再向后扫描；查询不区分大小写，多个词(以空白分隔)时返回同时匹配所有词的emoji。
+ * 查询过程中不分配内存，可以在每次输入时直接调用.</br>
+ * 
+ * @author BinGoBinBin
+ */
+public final class EmojiSearchIndex {
+
+    /**
+     * 查询只使用前MAX_QUERY_LENGTH个字符
+     */
+    public static final int MAX_QUERY_LENGTH = 32;
+
+    /**
+     * 所有关键字依次拼接，第i个关键字为mWords[mWordStarts[i], mWordStarts[i + 1])
+     */
+    private final String mWords;
+    private final String mWordStarts;
+    /**
+     * 第i个关键字对应的emoji id为mIds[mIdStarts[i], mIdStarts[i + 1])
+     */
+    private final String mIds;
+    private final String mIdStarts;
+    private final int mKeywordCount;
+    /**
+     * 每个emoji id最近一次查询中匹配到第几个词，以mGeneration为基准，避免每次查询清空数组
+     */
+    private final int[] mMarks;
+    private int mGeneration = 1;
+
+    private static final class Holder {
+        static final EmojiSearchIndex INSTANCE = new EmojiSearchIndex(EmojiData.Keywords.WORDS,
+                EmojiData.Keywords.WORD_STARTS, EmojiData.Keywords.IDS,
+                EmojiData.Keywords.ID_STARTS, EmojiTable.size());
+    }
+
+    private EmojiSearchIndex(String words, String wordStarts, String ids, String idStarts,
+            int emojiCount) {
+        mWords = words;
+        mWordStarts = wordStarts;
+        mIds = ids;
+        mIdStarts = idStarts;
+        mKeywordCount = wordStarts.length() - 1;
+        mMarks = new int[emojiCount];
+    }
+
+    /**
+     * 由emoji表生成的索引，第一次调用时加载
+     */
+    public static EmojiSearchIndex getDefault() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * 关键字个数
+     */
+    public int size() {
+        return mKeywordCount;
+    }
+
+    /**
+     * 查找关键字以query中每个词为前缀的emoji，结果按第一个词匹配到的关键字的字典序排列，完全匹配的关键字排在最前面，
+     * 每个emoji只出现一次.</br>
+     * 
+     * @param query 查询文本，首尾和词之间的空白被忽略
+     * @param out 输出emoji id，最多写入out.length个
+     * @return 写入out的个数
+     */
+    public synchronized int search(CharSequence query, int[] out) {
+        int length = Math.min(query.length(), MAX_QUERY_LENGTH);
+        // 每个查询占用mGeneration开始的MAX_QUERY_LENGTH + 2个标记值
+        if (mGeneration > Integer.MAX_VALUE - MAX_QUERY_LENGTH - 2) {
+            Arrays.fill(mMarks, 0);
+            mGeneration = 1;
+        }
+        int base = mGeneration;
+        mGeneration += MAX_QUERY_LENGTH + 2;
+
+        int terms = 0;
+        int firstFrom = 0;
+        int firstTo = 0;
+        int start = 0;
+        while (true) {
+            while (start < length && Character.isWhitespace(query.charAt(start))) {
+                start++;
+            }
+            if (start == length) {
+                break;
+            }
+            int end = start;
+            while (end < length && !Character.isWhitespace(query.charAt(end))) {
+                end++;
+            }
+
+            int from = lowerBound(query, start, end);
+            int to = from;
+            while (to < mKeywordCount && startsWith(to, query, start, end)) {
+                to++;
+            }
+            if (from == to) {
+                return 0;
+            }
+            if (terms == 0) {
+                firstFrom = from;
+                firstTo = to;
+            }
+            // 只有已经匹配前面所有词的emoji才前进到下一个标记
+            for (int keyword = from; keyword < to; keyword++) {
+                int idEnd = mIdStarts.charAt(keyword + 1);
+                for (int i = mIdStarts.charAt(keyword); i < idEnd; i++) {
+                    int id = mIds.charAt(i);
+                    if (terms == 0 || mMarks[id] == base + terms) {
+                        mMarks[id] = base + terms + 1;
+                    }
+                }
+            }
+            terms++;
+            start = end;
+        }
+        if (terms == 0) {
+            return 0;
+        }
+
+        int count = 0;
+        int matched = base + terms;
+        for (int keyword = firstFrom; keyword < firstTo && count < out.length; keyword++) {
+            int idEnd = mIdStarts.charAt(keyword + 1);
+            for (int i = mIdStarts.charAt(keyword); i < idEnd && count < out.length; i++) {
+                int id = mIds.charAt(i);
+                if (mMarks[id] == matched) {
+                    // 标记为已输出
+                    mMarks[id] = matched + 1;
+                    out[count++] = id;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 第一个前缀不小于query[start, end)的关键字
+     */
+    private int lowerBound(CharSequence query, int start, int end) {
+        int low = 0;
+        int high = mKeywordCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comparePrefix(mid, query, start, end) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private boolean startsWith(int keyword, CharSequence query, int start, int end) {
+        return comparePrefix(keyword, query, start, end) == 0;
+    }
+
+    /**
+     * 比较关键字的前end - start个字符与query[start, end)，query按小写比较
+     */
+    private int comparePrefix(int keyword, CharSequence query, int start, int end) {
+        int i = mWordStarts.charAt(keyword);
+        int wordEnd = mWordStarts.charAt(keyword + 1);
+        for (int j = start; j < end; i++, j++) {
+            if (i == wordEnd) {
+                // 关键字比查询词短
+                return -1;
+            }
+            int diff = mWords.charAt(i) - Character.toLowerCase(query.charAt(j));
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2015 Umeng, Inc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.pikachu.emoji.core;
+
+import java.util.Arrays;
+
+/**
+ * :shortcode:到emoji id的对照表，数据由tools/emoji.txt在构建时生成，按短码的字典序排列。
+ * 只从给定位置向前查看一个短码的长度，适合在每次输入后增量识别，不需要重新扫描整段文本.</br>
+ * 
+ * @author BinGoBinBin
+ */
+public final class EmojiShortcodes {
+
+    private EmojiShortcodes() {
+    }
+
+    /**
+     * 短码(不含冒号)的最大长度
+     */
+    public static final int MAX_LENGTH = EmojiData.Shortcodes.MAX_LENGTH;
+
+    private static final char COLON = ':';
+
+    private static final String NAMES = EmojiData.Shortcodes.NAMES;
+    private static final String NAME_STARTS = EmojiData.Shortcodes.NAME_STARTS;
+    private static final String IDS = EmojiData.Shortcodes.IDS;
+
+    /**
+     * 短码个数
+     */
+    public static int size() {
+        return IDS.length();
+    }
+
+    /**
+     * 查找短码对应的emoji id，不区分大小写.</br>
+     * 
+     * @param text 文本
+     * @param start 短码起点(不含冒号)
+     * @param end 短码终点(不包含，不含冒号)
+     * @return 没有该短码时返回{@link EmojiMatcher#NO_VALUE}
+     */
+    public static int find(CharSequence text, int start, int end) {
+        if (end <= start || end - start > MAX_LENGTH) {
+            return EmojiMatcher.NO_VALUE;
+        }
+        int low = 0;
+        int high = IDS.length() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int diff = compare(mid, text, start, end);
+            if (diff < 0) {
+                low = mid + 1;
+            } else if (diff > 0) {
+                high = mid - 1;
+            } else {
+                return IDS.charAt(mid);
+            }
+        }
+        return EmojiMatcher.NO_VALUE;
+    }
+
+    /**
+     * 把emoji id对应的短码(不含冒号)追加到out.</br>
+     * 
+     * @param id emoji id
+     * @param out
+     * @return 该emoji没有短码时返回false，不修改out
+     */
+    public static boolean appendShortcode(int id, StringBuilder out) {
+        int[] indexes = ReverseHolder.INDEXES;
+        if (id < 0 || id >= indexes.length || indexes[id] < 0) {
+            return false;
+        }
+        int index = indexes[id];
+        out.append(NAMES, NAME_STARTS.charAt(index), NAME_STARTS.charAt(index + 1));
+        return true;
+    }
+
+    /**
+     * 识别以end - 1处的冒号结尾的短码。从结尾的冒号向前最多查看{@link #MAX_LENGTH} + 1个字符，
+     * 遇到不能出现在短码中的字符即停止.</br>
+     * 
+     * @param text 文本
+     * @param end 短码结尾冒号之后的位置
+     * @param out 匹配成功时写入(start, end, emoji id)三元组，start为开头冒号的位置
+     * @return 是否匹配成功
+     */
+    public static boolean matchBefore(CharSequence text, int end, int[] out) {
+        int close = end - 1;
+        if (close < 1 || close >= text.length() || text.charAt(close) != COLON) {
+            return false;
+        }
+        int limit = Math.max(0, close - MAX_LENGTH - 1);
+        for (int i = close - 1; i >= limit; i--) {
+            char c = text.charAt(i);
+            if (c == COLON) {
+                int id = find(text, i + 1, close);
+                if (id == EmojiMatcher.NO_VALUE) {
+                    return false;
+                }
+                out[0] = i;
+                out[1] = end;
+                out[2] = id;
+                return true;
+            }
+            if (!isShortcodeChar(c)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 可以出现在短码中的字符：字母、数字、'_'、'+'、'-'
+     */
+    public static boolean isShortcodeChar(char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '_'
+                || c == '+' || c == '-';
+    }
+
+    /**
+     * emoji id到短码下标的反向索引，只在第一次需要时创建
+     */
+    private static final class ReverseHolder {
+        static final int[] INDEXES = new int[EmojiTable.size()];
+        static {
+            Arrays.fill(INDEXES, -1);
+            for (int i = 0; i < IDS.length(); i++) {
+                INDEXES[IDS.charAt(i)] = i;
+            }
+        }
+    }
+
+    private static int compare(int index, CharSequence text, int start, int end) {
+        int i = NAME_STARTS.charAt(index);
+        int nameEnd = NAME_STARTS.charAt(index + 1);
+        for (int j = start; j < end; i++, j++) {
+            if (i == nameEnd) {
+                return -1;
+            }
+            int diff = NAMES.charAt(i) - Character.toLowerCase(text.charAt(j));
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return i == nameEnd ? 0 : 1;
+    }
+}
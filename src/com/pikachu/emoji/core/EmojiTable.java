@@ -0,0 +1,286 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2015 Umeng, Inc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.pikachu.emoji.core;
+
+/**
+ * emoji表，只依赖JDK，可以在JVM上直接使用。emoji id即为其在{@link #CODE_POINTS}中的下标，也是在表情面板中的位置。
+ * 所有emoji图片在构建时打包成图集，id按行优先的顺序排列在图集的格子中.</br>
+ * 表中只有单个code point的图片：VS16、肤色、性别和情侣等组合序列匹配到基础emoji的id，整个序列只生成一个span；
+ * 家庭序列只在表中有1f46a时整体匹配，否则每个成员单独匹配.</br>
+ * 国旗(区域指示符对)和keycap序列不在支持范围内：没有图片，不会被匹配，按原文显示(运营商表转出的国旗和keycap也一样)；
+ * 添加图片后在{@link #newMatcher(int)}中加入即可.
+ * 
+ * @author BinGoBinBin
+ */
+public final class EmojiTable {
+
+    private EmojiTable() {
+    }
+
+    private static final int ZWJ = 0x200d;
+    private static final int VS16 = 0xfe0f;
+    private static final int FEMALE_SIGN = 0x2640;
+    private static final int MALE_SIGN = 0x2642;
+    private static final int HEART = 0x2764;
+    private static final int KISS_MARK = 0x1f48b;
+    private static final int MAN = 0x1f468;
+    private static final int WOMAN = 0x1f469;
+    private static final int COUPLE_WITH_HEART = 0x1f491;
+    private static final int KISS = 0x1f48f;
+    private static final int BOY = 0x1f466;
+    private static final int GIRL = 0x1f467;
+    private static final int FAMILY = 0x1f46a;
+    /**
+     * 家庭序列中的家长和孩子，按Unicode推荐的组合
+     */
+    private static final int[][] FAMILY_PARENTS = {
+            { MAN }, { WOMAN }, { MAN, WOMAN }, { MAN, MAN }, { WOMAN, WOMAN }
+    };
+    private static final int[][] FAMILY_CHILDREN = {
+            { BOY }, { GIRL }, { BOY, BOY }, { GIRL, BOY }, { GIRL, GIRL }
+    };
+    private static final int[] COUPLE_MEMBERS = {
+            WOMAN, MAN
+    };
+    private static final int[] GENDER_SIGNS = {
+            FEMALE_SIGN, MALE_SIGN
+    };
+    private static final int[] SKIN_TONES = {
+            0x1f3fb, 0x1f3fc, 0x1f3fd, 0x1f3fe, 0x1f3ff
+    };
+    /**
+     * 可以加肤色修饰符的emoji
+     */
+    private static final int[] MODIFIER_BASES = {
+            0x1f466, 0x1f467, 0x1f468, 0x1f469, 0x1f470, 0x1f471, 0x1f472, 0x1f473, 0x1f474,
+            0x1f475, 0x1f476, 0x1f477, 0x1f478, 0x1f385, 0x1f442, 0x1f443, 0x1f446, 0x1f447,
+            0x1f448, 0x1f449, 0x1f44a, 0x1f44b, 0x1f44c, 0x1f44d, 0x1f44e, 0x1f44f, 0x1f481,
+            0x1f485, 0x1f486, 0x1f487, 0x1f4aa, 0x1f645, 0x1f646, 0x1f647, 0x1f64b, 0x1f64c,
+            0x1f64d, 0x1f64e, 0x1f64f, 0x261d, 0x270a, 0x270b, 0x270c
+    };
+    /**
+     * 可以通过ZWJ组合性别符号的emoji
+     */
+    private static final int[] GENDERED_BASES = {
+            0x1f471, 0x1f473, 0x1f477, 0x1f481, 0x1f486, 0x1f487, 0x1f645, 0x1f646, 0x1f647,
+            0x1f64b, 0x1f64d, 0x1f64e
+    };
+
+    /**
+     * 有图片的emoji，下标即emoji id。由tools/emoji.txt在构建时生成
+     */
+    static final int[] CODE_POINTS = EmojiData.CODE_POINTS;
+
+    /**
+     * emoji个数
+     */
+    public static int size() {
+        return CODE_POINTS.length;
+    }
+
+    public static int getCodePoint(int id) {
+        return CODE_POINTS[id];
+    }
+
+    /**
+     * 图集中每个emoji格子的边长(px)
+     */
+    public static final int ATLAS_CELL = EmojiData.ATLAS_CELL;
+    /**
+     * 图集中相邻格子起点的距离(px)，格子之间留有空白，避免缩放时采样到相邻的emoji
+     */
+    public static final int ATLAS_PITCH = EmojiData.ATLAS_PITCH;
+    /**
+     * 图集每行的格子数
+     */
+    public static final int ATLAS_COLUMNS = EmojiData.ATLAS_COLUMNS;
+    /**
+     * 图集每页的行数
+     */
+    public static final int ATLAS_ROWS = EmojiData.ATLAS_ROWS;
+    /**
+     * 图集页数
+     */
+    public static final int ATLAS_PAGES = EmojiData.ATLAS_PAGES;
+
+    private static final int ATLAS_PAGE_SIZE = ATLAS_COLUMNS * ATLAS_ROWS;
+
+    /**
+     * 图集第page页对应的drawable名称
+     */
+    public static String getAtlasName(int page) {
+        return "emoji_atlas_" + page;
+    }
+
+    /**
+     * emoji id所在的图集页
+     */
+    public static int getAtlasPage(int id) {
+        return id / ATLAS_PAGE_SIZE;
+    }
+
+    /**
+     * emoji id在所在页中的列
+     */
+    public static int getAtlasColumn(int id) {
+        return id % ATLAS_PAGE_SIZE % ATLAS_COLUMNS;
+    }
+
+    /**
+     * emoji id在所在页中的行
+     */
+    public static int getAtlasRow(int id) {
+        return id % ATLAS_PAGE_SIZE / ATLAS_COLUMNS;
+    }
+
+    /**
+     * code point到emoji id的索引，第一次查找时构建
+     */
+    private static final class IndexHolder {
+        static final CodePointIndex INDEX;
+        static {
+            // 倒序加入，重复的code point以第一个为准
+            int count = CODE_POINTS.length;
+            int[] codePoints = new int[count];
+            int[] ids = new int[count];
+            for (int i = 0; i < count; i++) {
+                codePoints[i] = CODE_POINTS[count - 1 - i];
+                ids[i] = count - 1 - i;
+            }
+            INDEX = BlockCodePointIndex.build(codePoints, ids);
+        }
+    }
+
+    /**
+     * 查找code point对应的emoji id，没有时返回{@link EmojiMatcher#NO_VALUE}。查找代价与表的大小无关
+     */
+    public static int indexOf(int codePoint) {
+        return IndexHolder.INDEX.get(codePoint);
+    }
+
+    /**
+     * 生成包含所有序列的matcher，匹配值为emoji id。没有单独图片的变体序列（VS16、肤色、性别）使用基础emoji的id，
+     * 保证整个序列只生成一个span。不匹配运营商私有区字符，需要时使用{@link #newMatcher(int)}.
+     */
+    public static EmojiMatcher newMatcher() {
+        return newMatcher(-1);
+    }
+
+    /**
+     * 与{@link #newMatcher()}相同，匹配legacyCarrier运营商的私有区emoji.</br>
+     * 
+     * @param legacyCarrier {@link CarrierEmoji}中的运营商，-1表示不匹配私有区字符
+     */
+    public static EmojiMatcher newMatcher(int legacyCarrier) {
+        EmojiMatcher.Builder builder = new EmojiMatcher.Builder();
+        if (legacyCarrier >= 0) {
+            addCarrier(builder, legacyCarrier);
+        }
+        for (int id = 0; id < CODE_POINTS.length; id++) {
+            builder.add(id, CODE_POINTS[id]);
+            builder.add(id, CODE_POINTS[id], VS16);
+        }
+
+        for (int base : MODIFIER_BASES) {
+            int id = indexOf(base);
+            if (id == EmojiMatcher.NO_VALUE) {
+                continue;
+            }
+            for (int tone : SKIN_TONES) {
+                builder.add(id, base, tone);
+            }
+        }
+
+        for (int base : GENDERED_BASES) {
+            int id = indexOf(base);
+            if (id == EmojiMatcher.NO_VALUE) {
+                continue;
+            }
+            for (int sign : GENDER_SIGNS) {
+                builder.add(id, base, ZWJ, sign);
+                builder.add(id, base, ZWJ, sign, VS16);
+                for (int tone : SKIN_TONES) {
+                    builder.add(id, base, tone, ZWJ, sign);
+                    builder.add(id, base, tone, ZWJ, sign, VS16);
+                }
+            }
+        }
+
+        // couple with heart / kiss
+        int coupleId = indexOf(COUPLE_WITH_HEART);
+        int kissId = indexOf(KISS);
+        for (int first : COUPLE_MEMBERS) {
+            for (int second : COUPLE_MEMBERS) {
+                builder.add(coupleId, first, ZWJ, HEART, VS16, ZWJ, second);
+                builder.add(kissId, first, ZWJ, HEART, VS16, ZWJ, KISS_MARK, ZWJ, second);
+            }
+        }
+
+        // family: only with 1f46a artwork, otherwise every member is matched on its own
+        int familyId = indexOf(FAMILY);
+        if (familyId != EmojiMatcher.NO_VALUE) {
+            for (int[] parents : FAMILY_PARENTS) {
+                for (int[] children : FAMILY_CHILDREN) {
+                    builder.add(familyId, joinWithZwj(parents, children));
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * 依次用ZWJ连接first和second中的code point
+     */
+    private static int[] joinWithZwj(int[] first, int[] second) {
+        int count = first.length + second.length;
+        int[] sequence = new int[count * 2 - 1];
+        for (int i = 0; i < count; i++) {
+            sequence[i * 2] = i < first.length ? first[i] : second[i - first.length];
+            if (i > 0) {
+                sequence[i * 2 - 1] = ZWJ;
+            }
+        }
+        return sequence;
+    }
+
+    /**
+     * 替换成单个有图片的emoji的私有区字符，匹配值为该emoji的id
+     */
+    private static void addCarrier(EmojiMatcher.Builder builder, int carrier) {
+        for (int c = CarrierEmoji.getRangeStart(carrier), end = CarrierEmoji
+                .getRangeEnd(carrier); c < end; c++) {
+            int replacement = CarrierEmoji.find(carrier, (char) c);
+            if (replacement < 0) {
+                continue;
+            }
+            int codePoint = CarrierEmoji.getReplacementCodePoint(replacement);
+            int id = codePoint == EmojiMatcher.NO_VALUE ? EmojiMatcher.NO_VALUE
+                    : indexOf(codePoint);
+            if (id != EmojiMatcher.NO_VALUE) {
+                builder.add(id, c);
+            }
+        }
+    }
+}
@@ -0,0 +1,749 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2015 Umeng, Inc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.pikachu.emoji.core;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * 消息归档用的流式emoji转码器，只依赖JDK。encode把文本中的emoji换成稳定的占位符、:shortcode:或者引用图集的HTML
+ * &lt;img&gt;标签，decode把它们还原成emoji，使用与{@link EmojiScanner}、{@link EmojiShortcodes}相同的表。
+ * </br>
+ * 流式处理时只保留一个固定大小的缓冲区，缓冲区末尾保留一个最长序列(或最长标记)的长度，
+ * 跨越缓冲区边界的代理对和多code point序列留到下一次读入后再处理，结果与一次处理整段文本相同。
+ * 传入{@link ExecutorService}时，输入在不可能位于序列或标记内部的位置切块，各块并行转换后按顺序输出.</br>
+ * 
+ * 占位符格式为[emoji:1f44d-1f3fd]，保留原始的code point序列，code point不能是代理区字符。
+ * SHORTCODE格式中带肤色等修饰的序列以及没有短码的emoji使用占位符。
+ * PLACEHOLDER和SHORTCODE格式用反斜杠转义原文：反斜杠写成\\，原文中以[emoji:开头的'['写成\[，
+ * SHORTCODE格式中会和后面的内容组成:shortcode:的':'写成\:，decode时只还原这三种转义，
+ * 其他反斜杠保持不变；HTML格式会转义原文中的&amp;、&lt;、&gt;和&quot;.
+ * 
+ * @author BinGoBinBin
+ */
+public final class EmojiTranscoder {
+
+    /**
+     * emoji的替换格式
+     */
+    public enum Format {
+        /**
+         * [emoji:1f604]
+         */
+        PLACEHOLDER,
+        /**
+         * :smile:
+         */
+        SHORTCODE,
+        /**
+         * &lt;img class="emoji" alt="&amp;#x1f604;" src="emoji_atlas_0.png" style="..."&gt;
+         */
+        HTML
+    }
+
+    /**
+     * 流式处理时每次读入的字符数
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+    /**
+     * 并行处理时每块的目标字符数
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    private static final String PLACEHOLDER_PREFIX = "[emoji:";
+    private static final char PLACEHOLDER_SEPARATOR = '-';
+    private static final char PLACEHOLDER_SUFFIX = ']';
+    private static final char ESCAPE = '\\';
+    private static final String HTML_PREFIX = "<img class=\"emoji\" alt=\"";
+    private static final int VS16 = 0xfe0f;
+    /**
+     * decode时一个标记最多包含的code point个数
+     */
+    private static final int MAX_SEQUENCE = 16;
+    private static final int MATCH_BUFFER_SIZE = 32;
+
+    private final Format mFormat;
+    private final String mImagePath;
+    private final EmojiScanner mScanner;
+    /**
+     * 缓冲区末尾暂不处理的长度：encode为最长emoji序列的char数，decode为最长标记的char数
+     */
+    private final int mEncodeLookahead;
+    private final int mDecodeLookahead;
+
+    public EmojiTranscoder(Format format) {
+        this(format, "");
+    }
+
+    /**
+     * @param format 替换格式
+     * @param imagePath HTML格式中图集图片的路径前缀，例如"/static/emoji/"
+     */
+    public EmojiTranscoder(Format format, String imagePath) {
+        if (format == null || imagePath == null) {
+            throw new NullPointerException("format or image path is null");
+        }
+        mFormat = format;
+        mImagePath = imagePath;
+        mScanner = EmojiScanner.getDefault();
+        // 转义原文时还要看到后面的占位符前缀或者一个完整的短码
+        mEncodeLookahead = Math.max(mScanner.getMatcher().getMaxLength() * 2,
+                Math.max(PLACEHOLDER_PREFIX.length(), EmojiShortcodes.MAX_LENGTH + 2));
+        int placeholder = PLACEHOLDER_PREFIX.length() + MAX_SEQUENCE * 7 + 1;
+        // alt中每个code point为&#xhhhhh;，之后的src和style不超过128个字符加上路径前缀
+        int image = HTML_PREFIX.length() + MAX_SEQUENCE * 10 + 128 + imagePath.length();
+        mDecodeLookahead = Math.max(placeholder, image);
+    }
+
+    public Format getFormat() {
+        return mFormat;
+    }
+
+    /**
+     * 把text中的emoji替换成标记</br>
+     */
+    public String encode(CharSequence text) {
+        StringBuilder out = new StringBuilder(text.length() + 16);
+        process(text, 0, text.length(), text.length(), true, out, newMatchBuffer());
+        return out.toString();
+    }
+
+    /**
+     * 把text中的标记还原成emoji</br>
+     */
+    public String decode(CharSequence text) {
+        StringBuilder out = new StringBuilder(text.length());
+        process(text, 0, text.length(), text.length(), false, out, null);
+        return out.toString();
+    }
+
+    /**
+     * 从in读取，替换emoji后写入out，只占用固定大小的内存。不关闭in和out</br>
+     */
+    public void encode(Reader in, Writer out) throws IOException {
+        stream(in, out, true);
+    }
+
+    /**
+     * 从in读取，还原emoji后写入out，只占用固定大小的内存。不关闭in和out</br>
+     */
+    public void decode(Reader in, Writer out) throws IOException {
+        stream(in, out, false);
+    }
+
+    /**
+     * 分块并行替换text中的emoji</br>
+     * 
+     * @param text 文本
+     * @param executor 执行各块转换的线程池
+     */
+    public String encode(CharSequence text, ExecutorService executor) throws InterruptedException {
+        return parallel(text, true, executor, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * 分块并行还原text中的emoji</br>
+     * 
+     * @param text 文本
+     * @param executor 执行各块转换的线程池
+     */
+    public String decode(CharSequence text, ExecutorService executor) throws InterruptedException {
+        return parallel(text, false, executor, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * 流式分块并行替换emoji。每次读入parallelism块，内存占用约为parallelism * chunkSize个字符</br>
+     * 
+     * @param in 输入
+     * @param out 输出
+     * @param executor 执行各块转换的线程池
+     * @param parallelism 同时转换的块数
+     * @param chunkSize 每块的目标字符数
+     */
+    public void encode(Reader in, Writer out, ExecutorService executor, int parallelism,
+            int chunkSize) throws IOException {
+        stream(in, out, true, executor, parallelism, chunkSize);
+    }
+
+    /**
+     * 流式分块并行还原emoji，参数同{@link #encode(Reader, Writer, ExecutorService, int, int)}</br>
+     */
+    public void decode(Reader in, Writer out, ExecutorService executor, int parallelism,
+            int chunkSize) throws IOException {
+        stream(in, out, false, executor, parallelism, chunkSize);
+    }
+
+    private static int[] newMatchBuffer() {
+        return new int[MATCH_BUFFER_SIZE * EmojiScanner.STRIDE];
+    }
+
+    private void stream(Reader in, Writer out, boolean encode) throws IOException {
+        int lookahead = encode ? mEncodeLookahead : mDecodeLookahead;
+        char[] buffer = new char[DEFAULT_BUFFER_SIZE + lookahead];
+        CharBuffer text = CharBuffer.wrap(buffer);
+        StringBuilder result = new StringBuilder(DEFAULT_BUFFER_SIZE);
+        char[] scratch = new char[DEFAULT_BUFFER_SIZE];
+        int[] matches = encode ? newMatchBuffer() : null;
+        int length = 0;
+        boolean eof = false;
+        while (true) {
+            // 读满缓冲区，保证未处理的部分至少有lookahead个字符
+            while (!eof && length < buffer.length) {
+                int count = in.read(buffer, length, buffer.length - length);
+                if (count < 0) {
+                    eof = true;
+                } else {
+                    length += count;
+                }
+            }
+            int safeEnd = eof ? length : length - lookahead;
+            int next = process(text, 0, length, safeEnd, encode, result, matches);
+            scratch = write(result, out, scratch);
+            System.arraycopy(buffer, next, buffer, 0, length - next);
+            length -= next;
+            if (eof && length == 0) {
+                break;
+            }
+        }
+    }
+
+    private void stream(Reader in, Writer out, boolean encode, ExecutorService executor,
+            int parallelism, int chunkSize) throws IOException {
+        int lookahead = encode ? mEncodeLookahead : mDecodeLookahead;
+        chunkSize = Math.max(chunkSize, lookahead + 1);
+        char[] buffer = new char[Math.max(1, parallelism) * chunkSize];
+        CharBuffer text = CharBuffer.wrap(buffer);
+        StringBuilder result = new StringBuilder();
+        char[] scratch = new char[DEFAULT_BUFFER_SIZE];
+        List<Future<String>> futures = new ArrayList<Future<String>>();
+        int length = 0;
+        boolean eof = false;
+        while (true) {
+            while (!eof && length < buffer.length) {
+                int count = in.read(buffer, length, buffer.length - length);
+                if (count < 0) {
+                    eof = true;
+                } else {
+                    length += count;
+                }
+            }
+
+            int start = 0;
+            while (start < length) {
+                int end;
+                if (length - start <= chunkSize) {
+                    // 剩下的不足一块，没有读完时留到下一轮
+                    if (!eof) {
+                        break;
+                    }
+                    end = length;
+                } else {
+                    end = findSplit(text, start + chunkSize, length, encode);
+                    if (end == length && !eof) {
+                        break;
+                    }
+                }
+                futures.add(executor.submit(new Chunk(new String(buffer, start, end - start),
+                        encode)));
+                start = end;
+            }
+
+            int next = start;
+            if (futures.isEmpty() && !eof) {
+                // 整个缓冲区中没有可以切分的位置，顺序处理前面的部分
+                next = process(text, 0, length, length - lookahead, encode, result,
+                        encode ? newMatchBuffer() : null);
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                result.append(get(futures.get(i)));
+            }
+            futures.clear();
+            scratch = write(result, out, scratch);
+            System.arraycopy(buffer, next, buffer, 0, length - next);
+            length -= next;
+            if (eof && length == 0) {
+                break;
+            }
+        }
+    }
+
+    private String parallel(CharSequence text, boolean encode, ExecutorService executor,
+            int chunkSize) throws InterruptedException {
+        int length = text.length();
+        List<Future<String>> futures = new ArrayList<Future<String>>();
+        int start = 0;
+        while (start < length) {
+            int end = findSplit(text, Math.min(length, start + chunkSize), length, encode);
+            futures.add(executor.submit(new Chunk(text.subSequence(start, end), encode)));
+            start = end;
+        }
+        StringBuilder out = new StringBuilder(length + 16);
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                out.append(futures.get(i).get());
+            } catch (ExecutionException e) {
+                throw unwrap(e);
+            }
+        }
+        return out.toString();
+    }
+
+    private static String get(Future<String> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("transcoding interrupted");
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new RuntimeException(cause);
+    }
+
+    /**
+     * 独立转换的一块，切分位置保证块内的序列和标记都是完整的
+     */
+    private final class Chunk implements Callable<String> {
+        private final CharSequence mText;
+        private final boolean mEncode;
+
+        Chunk(CharSequence text, boolean encode) {
+            mText = text;
+            mEncode = encode;
+        }
+
+        @Override
+        public String call() {
+            return mEncode ? encode(mText) : decode(mText);
+        }
+    }
+
+    /**
+     * 从from开始查找第一个可以切分的位置，没有时返回end
+     */
+    private int findSplit(CharSequence text, int from, int end, boolean encode) {
+        for (int i = from; i < end; i++) {
+            // decode时不能把转义符和被转义的字符分开
+            if (isSplitPoint(text.charAt(i), encode)
+                    && (encode || i == 0 || text.charAt(i - 1) != ESCAPE)) {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * c之前可以切分：encode时c不属于任何emoji序列(除keycap外的ASCII字符)，
+     * PLACEHOLDER和SHORTCODE格式中c也不会出现在占位符前缀和短码中，前面的原文是否转义与c之后的内容无关；
+     * decode时c不会出现在标记内部
+     */
+    private boolean isSplitPoint(char c, boolean encode) {
+        if (encode) {
+            if (c >= 0x80 || (c >= '0' && c <= '9') || c == '#' || c == '*') {
+                return false;
+            }
+            return mFormat == Format.HTML || (c != ':' && !EmojiShortcodes.isShortcodeChar(c));
+        }
+        return c == '\n' || c == '[' || c == '<' || (mFormat != Format.HTML && c == ' ');
+    }
+
+    private static char[] write(StringBuilder result, Writer out, char[] scratch)
+            throws IOException {
+        int length = result.length();
+        if (scratch.length < length) {
+            scratch = new char[Math.max(length, scratch.length * 2)];
+        }
+        result.getChars(0, length, scratch, 0);
+        out.write(scratch, 0, length);
+        result.setLength(0);
+        return scratch;
+    }
+
+    /**
+     * 处理[start, end)中开始于safeEnd之前的内容，safeEnd之后的部分可能不完整.</br>
+     * 
+     * @return 下一次处理的起点，不小于safeEnd
+     */
+    private int process(CharSequence text, int start, int end, int safeEnd, boolean encode,
+            StringBuilder out, int[] matches) {
+        return encode ? encodeBlock(text, start, end, safeEnd, out, matches) : decodeBlock(text,
+                start, end, safeEnd, out);
+    }
+
+    private int encodeBlock(CharSequence text, int start, int end, int safeEnd,
+            StringBuilder out, int[] matches) {
+        int pos = start;
+        boolean done = false;
+        while (!done) {
+            int count = mScanner.scan(text, pos, end, matches);
+            done = count < MATCH_BUFFER_SIZE;
+            for (int k = 0; k < count * EmojiScanner.STRIDE; k += EmojiScanner.STRIDE) {
+                int matchStart = matches[k];
+                if (matchStart >= safeEnd) {
+                    // 可能被缓冲区截断，留到下一次
+                    done = true;
+                    break;
+                }
+                appendText(text, pos, matchStart, end, out);
+                appendEmoji(text, matchStart, matches[k + 1], matches[k + 2], out);
+                pos = matches[k + 1];
+            }
+        }
+        if (pos < safeEnd) {
+            appendText(text, pos, safeEnd, end, out);
+            pos = safeEnd;
+        }
+        return pos;
+    }
+
+    /**
+     * 写入[start, end)中的原文，[end, limit)中的内容用于判断是否需要转义
+     */
+    private void appendText(CharSequence text, int start, int end, int limit,
+            StringBuilder out) {
+        if (mFormat != Format.HTML) {
+            for (int i = start; i < end; i++) {
+                char c = text.charAt(i);
+                boolean escape = c == ESCAPE
+                        || (c == '[' && startsWith(text, i, limit, PLACEHOLDER_PREFIX))
+                        || (c == ':' && mFormat == Format.SHORTCODE
+                                && isShortcodeStart(text, i, limit));
+                if (escape) {
+                    out.append(ESCAPE);
+                }
+                out.append(c);
+            }
+            return;
+        }
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&':
+                    out.append("&amp;");
+                    break;
+                case '<':
+                    out.append("&lt;");
+                    break;
+                case '>':
+                    out.append("&gt;");
+                    break;
+                case '"':
+                    out.append("&quot;");
+                    break;
+                default:
+                    out.append(c);
+                    break;
+            }
+        }
+    }
+
+    private void appendEmoji(CharSequence text, int start, int end, int id, StringBuilder out) {
+        switch (mFormat) {
+            case SHORTCODE:
+                if (isBaseSequence(text, start, end, id)) {
+                    out.append(':');
+                    if (EmojiShortcodes.appendShortcode(id, out)) {
+                        out.append(':');
+                        return;
+                    }
+                    out.setLength(out.length() - 1);
+                }
+                appendPlaceholder(text, start, end, out);
+                break;
+            case HTML:
+                appendImage(text, start, end, id, out);
+                break;
+            default:
+                appendPlaceholder(text, start, end, out);
+                break;
+        }
+    }
+
+    /**
+     * start处的':'在encode之后是否可能被当作短码的开头：后面是一个已知的短码，并且短码之后是':'
+     * 或者可能是emoji(emoji可能被替换成以':'开头的短码)
+     */
+    private static boolean isShortcodeStart(CharSequence text, int start, int end) {
+        int limit = Math.min(end, start + EmojiShortcodes.MAX_LENGTH + 2);
+        int i = start + 1;
+        while (i < limit && EmojiShortcodes.isShortcodeChar(text.charAt(i))) {
+            i++;
+        }
+        if (i == start + 1 || i >= limit) {
+            return false;
+        }
+        char c = text.charAt(i);
+        if (c != ':' && c < 0x80 && c != '#' && c != '*') {
+            return false;
+        }
+        return EmojiShortcodes.find(text, start + 1, i) != EmojiMatcher.NO_VALUE;
+    }
+
+    /**
+     * 序列是否就是emoji表中的code point(可以带VS16)，短码只能还原出这种形式
+     */
+    private static boolean isBaseSequence(CharSequence text, int start, int end, int id) {
+        int codePoint = Character.codePointAt(text, start);
+        if (codePoint != EmojiTable.getCodePoint(id)) {
+            return false;
+        }
+        int next = start + Character.charCount(codePoint);
+        return next == end || (next + 1 == end && text.charAt(next) == VS16);
+    }
+
+    private static void appendPlaceholder(CharSequence text, int start, int end,
+            StringBuilder out) {
+        out.append(PLACEHOLDER_PREFIX);
+        for (int i = start; i < end;) {
+            int codePoint = Character.codePointAt(text, i);
+            if (i > start) {
+                out.append(PLACEHOLDER_SEPARATOR);
+            }
+            out.append(Integer.toHexString(codePoint));
+            i += Character.charCount(codePoint);
+        }
+        out.append(PLACEHOLDER_SUFFIX);
+    }
+
+    /**
+     * alt保存原始序列，图片通过object-position显示图集中对应的格子
+     */
+    private void appendImage(CharSequence text, int start, int end, int id, StringBuilder out) {
+        out.append(HTML_PREFIX);
+        for (int i = start; i < end;) {
+            int codePoint = Character.codePointAt(text, i);
+            out.append("&#x").append(Integer.toHexString(codePoint)).append(';');
+            i += Character.charCount(codePoint);
+        }
+        out.append("\" src=\"").append(mImagePath)
+                .append(EmojiTable.getAtlasName(EmojiTable.getAtlasPage(id)))
+                .append(".png\" style=\"width:").append(EmojiTable.ATLAS_CELL)
+                .append("px;height:").append(EmojiTable.ATLAS_CELL)
+                .append("px;object-fit:none;object-position:-")
+                .append(EmojiTable.getAtlasColumn(id) * EmojiTable.ATLAS_PITCH).append("px -")
+                .append(EmojiTable.getAtlasRow(id) * EmojiTable.ATLAS_PITCH).append("px\">");
+    }
+
+    private int decodeBlock(CharSequence text, int start, int end, int safeEnd,
+            StringBuilder out) {
+        int copied = start;
+        int i = start;
+        while (i < safeEnd) {
+            char c = text.charAt(i);
+            boolean candidate = c == '[' || (mFormat == Format.SHORTCODE && c == ':')
+                    || (mFormat == Format.HTML ? c == '<' || c == '&' : c == ESCAPE);
+            if (!candidate) {
+                i++;
+                continue;
+            }
+            out.append(text, copied, i);
+            copied = i;
+            int mark = out.length();
+            int tokenEnd;
+            if (c == ESCAPE) {
+                tokenEnd = parseEscape(text, i, end, out);
+            } else if (c == '[') {
+                tokenEnd = mFormat == Format.HTML ? -1 : parsePlaceholder(text, i, end, out);
+            } else if (c == ':') {
+                tokenEnd = parseShortcode(text, i, end, out);
+            } else if (c == '<') {
+                tokenEnd = parseImage(text, i, end, out);
+            } else {
+                tokenEnd = parseEntity(text, i, end, out);
+            }
+            if (tokenEnd < 0) {
+                out.setLength(mark);
+                i++;
+            } else {
+                i = copied = tokenEnd;
+            }
+        }
+        out.append(text, copied, i);
+        return i;
+    }
+
+    private static boolean startsWith(CharSequence text, int start, int end, String prefix) {
+        if (end - start < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (text.charAt(start + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int parseEscape(CharSequence text, int start, int end, StringBuilder out) {
+        if (start + 1 >= end) {
+            return -1;
+        }
+        char c = text.charAt(start + 1);
+        if (c != ESCAPE && c != '[' && c != ':') {
+            return -1;
+        }
+        out.append(c);
+        return start + 2;
+    }
+
+    /**
+     * 解析从start开始的十六进制code point，结果写入out[0]，返回结束位置，失败时返回-1。
+     * 代理区的值不是code point，同样失败
+     */
+    private static int parseHex(CharSequence text, int start, int end, int[] out) {
+        int value = 0;
+        int i = start;
+        while (i < end && i - start < 6) {
+            int digit = Character.digit(text.charAt(i), 16);
+            if (digit < 0) {
+                break;
+            }
+            value = value * 16 + digit;
+            i++;
+        }
+        if (i == start || value > Character.MAX_CODE_POINT
+                || (value >= Character.MIN_SURROGATE && value <= Character.MAX_SURROGATE)) {
+            return -1;
+        }
+        out[0] = value;
+        return i;
+    }
+
+    private static int parsePlaceholder(CharSequence text, int start, int end,
+            StringBuilder out) {
+        if (!startsWith(text, start, end, PLACEHOLDER_PREFIX)) {
+            return -1;
+        }
+        int[] value = new int[1];
+        int i = start + PLACEHOLDER_PREFIX.length();
+        for (int count = 0; count < MAX_SEQUENCE; count++) {
+            i = parseHex(text, i, end, value);
+            if (i < 0 || i >= end) {
+                return -1;
+            }
+            out.appendCodePoint(value[0]);
+            char c = text.charAt(i++);
+            if (c == PLACEHOLDER_SUFFIX) {
+                return i;
+            }
+            if (c != PLACEHOLDER_SEPARATOR) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static int parseShortcode(CharSequence text, int start, int end, StringBuilder out) {
+        int limit = Math.min(end, start + EmojiShortcodes.MAX_LENGTH + 2);
+        for (int i = start + 1; i < limit; i++) {
+            char c = text.charAt(i);
+            if (c == ':') {
+                int id = EmojiShortcodes.find(text, start + 1, i);
+                if (id == EmojiMatcher.NO_VALUE) {
+                    return -1;
+                }
+                out.appendCodePoint(EmojiTable.getCodePoint(id));
+                return i + 1;
+            }
+            if (!EmojiShortcodes.isShortcodeChar(c)) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static int parseImage(CharSequence text, int start, int end, StringBuilder out) {
+        if (!startsWith(text, start, end, HTML_PREFIX)) {
+            return -1;
+        }
+        int[] value = new int[1];
+        int i = start + HTML_PREFIX.length();
+        int count = 0;
+        while (i < end && text.charAt(i) != '"') {
+            if (count++ == MAX_SEQUENCE || !startsWith(text, i, end, "&#x")) {
+                return -1;
+            }
+            i = parseHex(text, i + 3, end, value);
+            if (i < 0 || i >= end || text.charAt(i) != ';') {
+                return -1;
+            }
+            out.appendCodePoint(value[0]);
+            i++;
+        }
+        if (count == 0) {
+            return -1;
+        }
+        // 跳过其余的属性
+        for (; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '>') {
+                return i + 1;
+            }
+            if (c == '<') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static int parseEntity(CharSequence text, int start, int end, StringBuilder out) {
+        if (startsWith(text, start, end, "&amp;")) {
+            out.append('&');
+            return start + 5;
+        }
+        if (startsWith(text, start, end, "&lt;")) {
+            out.append('<');
+            return start + 4;
+        }
+        if (startsWith(text, start, end, "&gt;")) {
+            out.append('>');
+            return start + 4;
+        }
+        if (startsWith(text, start, end, "&quot;")) {
+            out.append('"');
+            return start + 6;
+        }
+        return -1;
+    }
+}
@@ -25,12 +25,12 @@
 package com.pikachu.emoji.utils;
 
 import java.lang.reflect.Field;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import android.content.Context;
 import android.content.res.Resources;
 import android.graphics.drawable.Drawable;
+import android.util.Log;
 
 /**
  * @author BinGoBinBin 
@@ -109,13 +109,38 @@ public abstract class ResFinder {
     }
 
     /**
-     * 资源缓存map
+     * 当前包名和属于它的资源id缓存。修改包名时整体替换，查找过程中只读取一次，
+     * 用旧包名查到的id只会写入旧的缓存，不会混入新包名的缓存
      */
-    private static Map<ResItem, Integer> mResourcesCache = new HashMap<ResItem, Integer>();
-    private static final int NOT_FOUND = -1;
-    private static Context mContext;
-    /** 开发者App的包名 */
-    private static String mPackageName = "";
+    private static volatile ResourceIds sResourceIds = new ResourceIds("");
+    /**
+     * R.styleable中的数组，第一次使用时通过反射一次性读取
+     */
+    private static final ConcurrentHashMap<String, int[]> sStyleableCache =
+            new ConcurrentHashMap<String, int[]>();
+    private static final String TAG = "ResFinder";
+    private static volatile boolean sStyleablesLoaded = false;
+    private static volatile Context mContext;
+
+    /**
+     * 一个包名下的资源id缓存，按资源类型的ordinal分成多个map，以资源名作为键，命中时不分配内存。
+     * 可以在多个线程中并发读取
+     */
+    private static final class ResourceIds {
+        /** 开发者App的包名 */
+        final String mPackageName;
+        final ConcurrentHashMap<String, Integer>[] mCache;
+
+        @SuppressWarnings("unchecked")
+        ResourceIds(String packageName) {
+            mPackageName = packageName;
+            ResType[] types = ResType.values();
+            mCache = new ConcurrentHashMap[types.length];
+            for (int i = 0; i < types.length; i++) {
+                mCache[i] = new ConcurrentHashMap<String, Integer>();
+            }
+        }
+    }
 
     /**
      * 初始化Context,必须在初始化CommunitySDK时初始化
@@ -128,7 +153,19 @@ public abstract class ResFinder {
             throw new NullPointerException("初始化ResFinder失败，传递的Context为空.");
         }
 
-        mPackageName = mContext.getPackageName();
+        setPackageName(mContext.getPackageName());
+    }
+
+    /**
+     * 还没有初始化时使用context的ApplicationContext初始化。供不经过EmojiBoard单独使用的控件调用
+     * 
+     * @param context 任意Context
+     */
+    public static void ensureContext(Context context) {
+        if (mContext == null) {
+            Context appContext = context.getApplicationContext();
+            initContext(appContext != null ? appContext : context);
+        }
     }
 
     /**
@@ -138,8 +175,13 @@ public abstract class ResFinder {
      * 
      * @param packageName
      */
-    public static void setPackageName(String packageName) {
-        mPackageName = packageName;
+    public static synchronized void setPackageName(String packageName) {
+        String current = sResourceIds.mPackageName;
+        boolean changed = packageName == null ? current != null : !packageName.equals(current);
+        if (changed) {
+            // 包名和空的缓存一起替换，正在用旧包名查找的线程只会写入旧的缓存
+            sResourceIds = new ResourceIds(packageName);
+        }
     }
 
     public static Context getApplicationContext() {
@@ -148,6 +190,7 @@ public abstract class ResFinder {
 
     /**
      * 根据资源类型和名称查找资源id,首先从缓存中读取,有缓存则直接返回,否则从资源目录中查找,找到后再缓存到map中.
+     * 可以在多个线程中同时调用，缓存命中时不加锁也不分配内存.
      * 
      * @param mContext 上下文
      * @param type 资源类型
@@ -155,31 +198,28 @@ public abstract class ResFinder {
      * @return
      */
     public static int getResourceId(ResType type, String name) {
-
-        ResItem item = new ResItem(type, name);
+        ResourceIds ids = sResourceIds;
+        ConcurrentHashMap<String, Integer> cache = ids.mCache[type.ordinal()];
         // 从缓存中读取
-        int rid = getIdFromCache(item);
-        if (rid != NOT_FOUND) {
-            return rid;
+        Integer cached = cache.get(name);
+        if (cached != null) {
+            return cached;
         }
-        // 没有缓存该资源,那么直接查找
+        // 没有缓存该资源,那么直接查找。并发查找同一个资源时结果相同，重复put没有影响
+        String packageName = ids.mPackageName;
         Resources resources = mContext.getResources();
-        rid = resources.getIdentifier(name, type.toString(), mPackageName);
+        int rid = resources.getIdentifier(name, type.toString(), packageName);
         if (rid <= 0) {
-            throw new RuntimeException("获取资源ID失败:(packageName=" + mPackageName
+            throw new RuntimeException("获取资源ID失败:(packageName=" + packageName
                     + " type=" + type + " name=" + name + ", 请确保的res/" + type.toString()
                     + "目录中含有该资源");
         }
 
         // 解析成功后缓存到map中
-        mResourcesCache.put(item, rid);
+        cache.put(name, rid);
         return rid;
     }
 
-    private static int getIdFromCache(ResItem item) {
-        return mResourcesCache.containsKey(item) ? mResourcesCache.get(item) : NOT_FOUND;
-    }
-
     /**
      * 获取字符串
      * 
@@ -229,8 +269,10 @@ public abstract class ResFinder {
     /**
      * 资源项,代表某个资源,以资源类型和资源名作为唯一的标识.
      * 
+     * @deprecated 资源缓存不再以ResItem为键，保留只是为了兼容
      * @author mrsimple
      */
+    @Deprecated
     public static class ResItem {
         public ResType mType;
         public String mName;
@@ -270,23 +312,30 @@ public abstract class ResFinder {
     } // end of SocializeResource
 
     private static final int[] getResourceDeclareStyleableIntArray(Context context, String name) {
+        if (!sStyleablesLoaded) {
+            loadStyleables(context);
+        }
+        return sStyleableCache.get(name);
+    }
+
+    /**
+     * 通过反射一次性读取R.styleable中所有的int数组。失败时不标记为已读取，下次使用时重试
+     */
+    private static synchronized void loadStyleables(Context context) {
+        if (sStyleablesLoaded) {
+            return;
+        }
         try {
             // use reflection to access the resource class
-            Field[] fields2 = Class.forName(context.getPackageName() + ".R$styleable").getFields();
-
-            // browse all fields
-            for (Field f : fields2) {
-                // pick matching field
-                if (f.getName().equals(name)) {
-                    // return as int array
-                    int[] ret = (int[]) f.get(null);
-                    return ret;
+            Field[] fields = Class.forName(context.getPackageName() + ".R$styleable").getFields();
+            for (Field f : fields) {
+                if (f.getType() == int[].class) {
+                    sStyleableCache.put(f.getName(), (int[]) f.get(null));
                 }
             }
+            sStyleablesLoaded = true;
         } catch (Throwable t) {
-            t.printStackTrace();
+            Log.w(TAG, "读取R.styleable失败", t);
         }
-
-        return null;
     }
 }
@@ -25,34 +25,114 @@
 package com.pikachu.emoji.widget;
 
 import android.content.Context;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.util.AttributeSet;
 import android.view.KeyEvent;
 import android.widget.EditText;
 
 import com.pikachu.emoji.EmojiHandler;
+import com.pikachu.emoji.EmojiSource;
+import com.pikachu.emoji.core.EmojiShortcodes;
+import com.pikachu.emoji.utils.ResFinder;
 
 /**
  * 主要实现对back事件的监听。在评论的时候，点击返回键，需要同时隐藏软键盘并且让EditTextk控件消失。
+ * 输入:smile:这样的短码时，在输入结尾冒号的同时替换成对应的emoji.
  */
 public class CommentEditText extends EditText {
 
     private EditTextBackEventListener mListener;
+    /**
+     * 父类构造函数中设置文本时这些字段还没有初始化，此时不识别短码
+     */
+    private boolean mShortcodesEnabled = true;
+    private final int[] mShortcodeMatch = new int[3];
+    /**
+     * 本次输入完成了一个短码，在afterTextChanged中替换。onTextChanged中不能修改文本
+     */
+    private boolean mShortcodePending = false;
 
     public CommentEditText(Context context) {
         super(context);
+        init();
     }
 
     public CommentEditText(Context context, AttributeSet attrs) {
         super(context, attrs);
+        init();
     }
 
     public CommentEditText(Context context, AttributeSet attrs, int defStyle) {
         super(context, attrs, defStyle);
+        init();
+    }
+
+    private void init() {
+        // the emoji atlas is resolved through ResFinder when the spans are drawn
+        ResFinder.ensureContext(getContext());
+        addTextChangedListener(new TextWatcher() {
+
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                if (mShortcodePending) {
+                    mShortcodePending = false;
+                    replaceShortcode(s);
+                }
+            }
+        });
     }
 
     @Override
     protected void onTextChanged(CharSequence text, int start, int lengthBefore, int lengthAfter) {
-        EmojiHandler.addEmojis(getContext(), getText(), 65, 65, false);
+        // 只扫描改动的区域；粘贴大段文本时仍在主线程同步扫描整段粘贴内容
+        EmojiHandler.updateEmojis(getContext(), getText(), 65, 65, start, lengthBefore,
+                lengthAfter);
+        // 只查看新输入内容的结尾，不扫描整段文本
+        if (mShortcodesEnabled && lengthAfter > 0
+                && EmojiShortcodes.matchBefore(text, start + lengthAfter, mShortcodeMatch)) {
+            mShortcodePending = true;
+        }
+    }
+
+    /**
+     * 用emoji替换刚完成的短码，替换后的文本会再次经过onTextChanged生成emoji span</br>
+     * 
+     * @param text
+     */
+    private void replaceShortcode(Editable text) {
+        int start = mShortcodeMatch[0];
+        int end = mShortcodeMatch[1];
+        int id = mShortcodeMatch[2];
+        if (end > text.length() || id >= EmojiSource.DATA.length) {
+            return;
+        }
+        String emoji = EmojiSource.DATA[id].getEmoji();
+        text.replace(start, end, emoji, 0, emoji.length());
+    }
+
+    /**
+     * 是否把输入的:shortcode:替换成emoji，默认开启</br>
+     * 
+     * @param enabled
+     */
+    public void setShortcodesEnabled(boolean enabled) {
+        mShortcodesEnabled = enabled;
+        if (!enabled) {
+            mShortcodePending = false;
+        }
+    }
+
+    public boolean isShortcodesEnabled() {
+        return mShortcodesEnabled;
     }
 
     @Override
@@ -24,16 +24,20 @@
 
 package com.pikachu.emoji.widget;
 
-import android.annotation.SuppressLint;
+import android.annotation.TargetApi;
 import android.app.Activity;
 import android.content.Context;
-import android.os.Handler;
-import android.os.Message;
+import android.content.SharedPreferences;
+import android.content.res.Configuration;
+import android.graphics.Rect;
+import android.os.Build;
+import android.support.v4.view.ViewCompat;
 import android.util.AttributeSet;
 import android.view.KeyEvent;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.ViewTreeObserver.OnGlobalLayoutListener;
 import android.view.WindowManager;
 import android.view.inputmethod.BaseInputConnection;
 import android.view.inputmethod.InputMethodManager;
@@ -42,6 +46,10 @@ import android.widget.ImageView;
 import android.widget.RelativeLayout;
 
 import com.pikachu.emoji.EmojiBean;
+import com.pikachu.emoji.EmojiHandler;
+import com.pikachu.emoji.EmojiRecents;
+import com.pikachu.emoji.cache.EmojiCacheManager;
+import com.pikachu.emoji.utils.CommonUtils;
 import com.pikachu.emoji.utils.ResFinder;
 import com.pikachu.emoji.utils.ResFinder.ResType;
 import com.pikachu.emoji.widget.CommentEditText.EditTextBackEventListener;
@@ -57,20 +65,37 @@ public class EmojiBoard extends RelativeLayout {
     private CommentEditText mEditText;
     private EmojiView mEmojiBoard;
 
-    private int totalTime = 0;
-    private boolean isFinish = false;
+    /**
+     * 窗口底部被遮挡超过这个高度(dp)时认为输入法已经显示，小于它的是导航栏等
+     */
+    private static final int KEYBOARD_MIN_HEIGHT = 100;
 
-    private int INPUT_METHOD_SHOW = 0x00;
-    private int INPUT_METHOD_DISMISS = 0x01;
+    private static final int PENDING_NONE = 0;
+    /**
+     * 等输入法收起后显示表情面板
+     */
+    private static final int PENDING_SHOW_BOARD = 1;
+    /**
+     * 等输入法弹出后隐藏表情面板
+     */
+    private static final int PENDING_HIDE_BOARD = 2;
+    private int mPendingAction = PENDING_NONE;
 
+    private boolean mKeyboardVisible = false;
+    private int mKeyboardMinHeight = 0;
     /**
-     * 检测输入法是否显示的空闲时间
+     * 没有输入法时窗口底部被遮挡的高度，例如导航栏
      */
-    private static final int IDLE = 50;
+    private int mBaseInset = 0;
     /**
-     * 关闭输入法总共尝试3000ms
+     * 当前方向上测量到的输入法高度，0表示还没有测量过
      */
-    private static final int LIMIT_TIME = 3000;
+    private int mKeyboardHeight = 0;
+
+    private static final String PREFS_NAME = "emoji_board";
+    private static final String KEY_HEIGHT_PORTRAIT = "keyboard_height_portrait";
+    private static final String KEY_HEIGHT_LANDSCAPE = "keyboard_height_landscape";
+    private final Rect mVisibleFrame = new Rect();
 
     private InputMethodManager mInputMethodManager;
     private Activity mActivity;
@@ -80,27 +105,69 @@ public class EmojiBoard extends RelativeLayout {
     private BaseInputConnection mInputConnection = null;
 
     /**
-     * 该Handler主要处理软键盘的弹出跟隐藏
+     * 根据窗口可见区域判断输入法的显示和隐藏，不需要轮询
      */
-    @SuppressLint("HandlerLeak")
-    private Handler mHandler = new Handler() {
-        public void handleMessage(android.os.Message msg) {
-            View view = (View) msg.obj;
-            // 显示软键盘
-            if (msg.what == INPUT_METHOD_SHOW) {
-                boolean result = mInputMethodManager.showSoftInput(view, 0);
-                if (!result && totalTime < LIMIT_TIME) {
-                    totalTime += IDLE;
-                    Message message = Message.obtain(msg);
-                    mHandler.sendMessageDelayed(message, IDLE);
-                } else if (!isFinish) {
-                    totalTime = 0;
-                    result = view.requestFocus();
-                    isFinish = true;
-                }
-            } else if (msg.what == INPUT_METHOD_DISMISS) {
-                // 隐藏软键盘
-                mInputMethodManager.hideSoftInputFromWindow(view.getWindowToken(), 0);
+    private final OnGlobalLayoutListener mLayoutListener = new OnGlobalLayoutListener() {
+
+        @Override
+        public void onGlobalLayout() {
+            View root = getRootView();
+            root.getWindowVisibleDisplayFrame(mVisibleFrame);
+            int inset = root.getHeight() - mVisibleFrame.bottom;
+            boolean visible = inset - mBaseInset > mKeyboardMinHeight;
+            if (visible) {
+                updateKeyboardHeight(inset - mBaseInset);
+            } else {
+                mBaseInset = inset;
+            }
+            if (visible != mKeyboardVisible) {
+                mKeyboardVisible = visible;
+                mEmojiBoard.setKeyboardVisible(visible);
+                onKeyboardVisibilityChanged(visible);
+            }
+        }
+    };
+
+    private final Runnable mShowBoard = new Runnable() {
+
+        @Override
+        public void run() {
+            mEmojiBoard.setVisibility(View.VISIBLE);
+        }
+    };
+
+    private final Runnable mHideBoard = new Runnable() {
+
+        @Override
+        public void run() {
+            mEmojiBoard.setVisibility(View.GONE);
+        }
+    };
+
+    /**
+     * 输入框刚获得焦点时输入法可能还没有连接上，下一帧再弹出一次，仍然失败时直接隐藏表情面板
+     */
+    private final Runnable mShowSoftInput = new Runnable() {
+
+        @Override
+        public void run() {
+            if (mPendingAction == PENDING_HIDE_BOARD
+                    && !mInputMethodManager.showSoftInput(mEditText, 0)) {
+                mPendingAction = PENDING_NONE;
+                mEmojiBoard.setVisibility(View.GONE);
+            }
+        }
+    };
+
+    /**
+     * 输入框失去焦点后检查焦点是否转到了面板的搜索框，两个都没有焦点时才隐藏面板
+     */
+    private final Runnable mCheckFocus = new Runnable() {
+
+        @Override
+        public void run() {
+            if (!mEditText.hasFocus() && !mEmojiBoard.isSearching()) {
+                mEmojiBoard.setVisibility(View.GONE);
             }
         }
     };
@@ -139,6 +206,8 @@ public class EmojiBoard extends RelativeLayout {
         } else {
             ResFinder.initContext(getContext());
         }
+        // 内存紧张时释放emoji缓存
+        EmojiCacheManager.getInstance().install(getContext());
 
         ViewGroup.LayoutParams params = new ViewGroup.LayoutParams(
                 ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT);
@@ -153,11 +222,15 @@ public class EmojiBoard extends RelativeLayout {
 
         mInputMethodManager = (InputMethodManager) getContext().getSystemService(
                 Context.INPUT_METHOD_SERVICE);
+        mKeyboardMinHeight = CommonUtils.dp2px(getContext(), KEYBOARD_MIN_HEIGHT);
 
         mSendView = rootView.findViewById(ResFinder.getId("emoji_send"));
         mEmojiImageView = (ImageView) rootView.findViewById(ResFinder.getId("emoji_imageview"));
         mEditText = (CommentEditText) rootView.findViewById(ResFinder.getId("emoji_editview"));
         mEmojiBoard = (EmojiView) rootView.findViewById(ResFinder.getId("emoji_board"));
+        // 使用上次测量的输入法高度，面板和输入法切换时内容区域的高度不变
+        mKeyboardHeight = getPreferences().getInt(getHeightKey(), 0);
+        mEmojiBoard.setBoardHeight(mKeyboardHeight);
         mEmojiIconRes = ResFinder.getResourceId(ResType.DRAWABLE, "emoji_icon");
         mEmojiKeyboardRes = ResFinder.getResourceId(ResType.DRAWABLE, "emoji_keyboard");
 
@@ -189,6 +262,8 @@ public class EmojiBoard extends RelativeLayout {
                     return;
                 }
 
+                EmojiRecents.getInstance(getContext()).record(
+                        EmojiHandler.getEmojiId(emojiBean.getEmoji()));
                 int start = mEditText.getSelectionStart();
                 int end = mEditText.getSelectionEnd();
                 if (start < 0) {
@@ -206,7 +281,11 @@ public class EmojiBoard extends RelativeLayout {
             @Override
             public void onFocusChange(View v, boolean hasFocus) {
                 if (!hasFocus) {
-                    mEmojiBoard.setVisibility(View.GONE);
+                    // 焦点转移时新的焦点View在回调之后才获得焦点
+                    post(mCheckFocus);
+                } else if (mEmojiBoard.getVisibility() != View.VISIBLE) {
+                    // 用户很可能马上打开表情面板
+                    prewarm(getContext());
                 }
             }
         });
@@ -215,7 +294,13 @@ public class EmojiBoard extends RelativeLayout {
 
             @Override
             public void onClick(View v) {
-                if (mEmojiBoard.getVisibility() == View.VISIBLE) {
+                if (mEmojiBoard.getVisibility() != View.VISIBLE) {
+                    return;
+                }
+                if (mEmojiBoard.getBoardHeight() > 0) {
+                    // 面板在输入法弹出时再隐藏，内容区域不需要重新布局
+                    executeHideEmojiBoard();
+                } else {
                     mEmojiBoard.setVisibility(View.GONE);
                 }
             }
@@ -237,30 +322,111 @@ public class EmojiBoard extends RelativeLayout {
     }
 
     /**
-     * 显示输入法、隐藏表情面板</br>
+     * 显示输入法、隐藏表情面板。面板在输入法弹出的那一帧隐藏</br>
      */
     private void executeHideEmojiBoard() {
-        mEmojiBoard.setVisibility(View.GONE);
         mEmojiImageView.setImageResource(mEmojiIconRes);
-        mActivity.getWindow().setSoftInputMode(
-                WindowManager.LayoutParams.SOFT_INPUT_STATE_ALWAYS_HIDDEN
-                        | WindowManager.LayoutParams.SOFT_INPUT_ADJUST_RESIZE);
-        sendInputMethodMessage(INPUT_METHOD_SHOW, mEditText);
+        if (mActivity != null) {
+            mActivity.getWindow().setSoftInputMode(
+                    WindowManager.LayoutParams.SOFT_INPUT_STATE_ALWAYS_HIDDEN
+                            | WindowManager.LayoutParams.SOFT_INPUT_ADJUST_RESIZE);
+        }
+        if (mKeyboardVisible) {
+            // 正在搜索，输入法已经显示，只需要把焦点还给输入框
+            mPendingAction = PENDING_NONE;
+            mEditText.requestFocus();
+            ViewCompat.postOnAnimation(this, mHideBoard);
+            return;
+        }
+        mPendingAction = PENDING_HIDE_BOARD;
+        mEditText.requestFocus();
+        if (!mInputMethodManager.showSoftInput(mEditText, 0)) {
+            ViewCompat.postOnAnimation(this, mShowSoftInput);
+        }
     }
 
     /**
-     * 隐藏输入法、显示表情面板</br>
+     * 隐藏输入法、显示表情面板。还不知道输入法高度时，等输入法收起后的下一帧再显示面板</br>
      */
     private void executeShowEmojiBoard() {
         mEmojiImageView.setImageResource(mEmojiKeyboardRes);
-        sendInputMethodMessage(INPUT_METHOD_DISMISS, mEditText);
-        new Handler().postDelayed(new Runnable() {
-
-            @Override
-            public void run() {
+        if (mKeyboardVisible
+                && mInputMethodManager.hideSoftInputFromWindow(mEditText.getWindowToken(), 0)) {
+            if (mEmojiBoard.getBoardHeight() > 0) {
+                // 面板与输入法等高，输入法收起前面板不占高度，收起的同一次布局中直接替换输入法
+                mPendingAction = PENDING_NONE;
                 mEmojiBoard.setVisibility(View.VISIBLE);
+            } else {
+                mPendingAction = PENDING_SHOW_BOARD;
+            }
+        } else {
+            mPendingAction = PENDING_NONE;
+            ViewCompat.postOnAnimation(this, mShowBoard);
+        }
+    }
+
+    /**
+     * 输入法高度变化时调整面板高度，并按屏幕方向保存
+     */
+    private void updateKeyboardHeight(int height) {
+        if (height == mKeyboardHeight) {
+            return;
+        }
+        mKeyboardHeight = height;
+        mEmojiBoard.setBoardHeight(height);
+        SharedPreferences.Editor editor = getPreferences().edit().putInt(getHeightKey(), height);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.GINGERBREAD) {
+            applyAsync(editor);
+        } else {
+            editor.commit();
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.GINGERBREAD)
+    private static void applyAsync(SharedPreferences.Editor editor) {
+        editor.apply();
+    }
+
+    private SharedPreferences getPreferences() {
+        return getContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    private String getHeightKey() {
+        int orientation = getResources().getConfiguration().orientation;
+        return orientation == Configuration.ORIENTATION_LANDSCAPE ? KEY_HEIGHT_LANDSCAPE
+                : KEY_HEIGHT_PORTRAIT;
+    }
+
+    @Override
+    protected void onConfigurationChanged(Configuration newConfig) {
+        super.onConfigurationChanged(newConfig);
+        // 屏幕旋转后换成该方向上保存的高度
+        mBaseInset = 0;
+        mKeyboardHeight = getPreferences().getInt(getHeightKey(), 0);
+        mEmojiBoard.setBoardHeight(mKeyboardHeight);
+    }
+
+    private void onKeyboardVisibilityChanged(boolean visible) {
+        if (visible) {
+            // 输入法弹出时表情面板总是隐藏，在面板中搜索时除外
+            mPendingAction = PENDING_NONE;
+            if (mEmojiBoard.getVisibility() == View.VISIBLE && !mEmojiBoard.isSearching()) {
+                ViewCompat.postOnAnimation(this, mHideBoard);
             }
-        }, 80);
+        } else if (mPendingAction == PENDING_SHOW_BOARD) {
+            mPendingAction = PENDING_NONE;
+            ViewCompat.postOnAnimation(this, mShowBoard);
+        }
+    }
+
+    /**
+     * 在后台线程预先准备表情面板的数据、资源id和第一页的图片，打开面板时不再卡顿。
+     * 可以在应用空闲时调用，输入框获得焦点时也会自动调用</br>
+     * 
+     * @param context
+     */
+    public static void prewarm(Context context) {
+        EmojiView.prewarm(context);
     }
 
     /**
@@ -298,12 +464,6 @@ public class EmojiBoard extends RelativeLayout {
         this.mActivity = activity;
     }
 
-    private void sendInputMethodMessage(int type, View view) {
-        Message message = mHandler.obtainMessage(type);
-        message.obj = view;
-        mHandler.sendMessage(message);
-    }
-
     public interface OnSendClickListener {
         /**
          * 点击发送按钮时的回调</br>
@@ -313,10 +473,23 @@ public class EmojiBoard extends RelativeLayout {
         public void onSendClick(String text);
     }
 
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        getViewTreeObserver().addOnGlobalLayoutListener(mLayoutListener);
+    }
+
+    @SuppressWarnings("deprecation")
     @Override
     protected void onDetachedFromWindow() {
         super.onDetachedFromWindow();
-        mHandler.removeCallbacksAndMessages(null);
+        getViewTreeObserver().removeGlobalOnLayoutListener(mLayoutListener);
+        removeCallbacks(mShowBoard);
+        removeCallbacks(mHideBoard);
+        removeCallbacks(mShowSoftInput);
+        removeCallbacks(mCheckFocus);
+        EmojiRecents.getInstance(getContext()).flush();
+        mPendingAction = PENDING_NONE;
         mActivity = null;
     }
 
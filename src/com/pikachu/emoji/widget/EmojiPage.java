@@ -24,52 +24,86 @@
 
 package com.pikachu.emoji.widget;
 
+import java.util.List;
+
 import android.content.Context;
-import android.graphics.Color;
-import android.graphics.drawable.ColorDrawable;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.os.Bundle;
+import android.support.v4.view.ViewCompat;
+import android.support.v4.view.accessibility.AccessibilityNodeInfoCompat;
+import android.support.v4.widget.ExploreByTouchHelper;
+import android.view.MotionEvent;
+import android.view.SoundEffectConstants;
 import android.view.View;
-import android.widget.AdapterView;
-import android.widget.GridView;
+import android.view.accessibility.AccessibilityEvent;
 
-import com.pikachu.emoji.EmojiAdapter;
 import com.pikachu.emoji.EmojiBean;
+import com.pikachu.emoji.EmojiHandler;
+import com.pikachu.emoji.EmojiRenderer;
+import com.pikachu.emoji.core.EmojiMatcher;
 import com.pikachu.emoji.utils.CommonUtils;
+import com.pikachu.emoji.utils.ResFinder;
 import com.pikachu.emoji.widget.EmojiView.OnEmojiItemClickListener;
 
 /**
- * 每页的Emoji现实View，使用GridView来自展示
+ * 每页的Emoji显示View。所有emoji直接从图集绘制在同一个View上，点击位置自己换算成格子，
+ * 没有子View、span和文字排版。每个格子通过{@link ExploreByTouchHelper}作为虚拟View提供给无障碍服务
  * 
  * @author BinGoBinBin
  */
-class EmojiPage extends GridView {
+class EmojiPage extends View {
 
-    private EmojiBean[] mEmojicons;
-    private static final int COLUMN_WIDTH = 40; // column width
     private static final int COLUMNS = 7; // columns
+    private static final int ROW_HEIGHT = 36; // row height (dp)
+    private static final int VERTICAL_SPACING = 10; // vertical spacing (dp)
+    static final int EMOJI_SIZE = 28; // emoji size (dp)
+
+    private EmojiBean[] mEmojicons;
+    /**
+     * 每一项对应的emoji id，绑定时查找一次
+     */
+    private int[] mEmojiIds;
+    private final int mRowHeight;
+    private final int mVerticalSpacing;
+    private final int mEmojiSize;
+    private OnEmojiItemClickListener mListener;
+    /**
+     * 按下的格子，-1表示没有
+     */
+    private int mPressedPosition = -1;
+    private final EmojiTouchHelper mTouchHelper;
+    private final Rect mCellBounds = new Rect();
 
     /**
      * @param context
      */
     public EmojiPage(Context context, EmojiBean[] emojis) {
         super(context);
-        this.mEmojicons = emojis;
-        init();
+        mRowHeight = CommonUtils.dp2px(context, ROW_HEIGHT);
+        mVerticalSpacing = CommonUtils.dp2px(context, VERTICAL_SPACING);
+        mEmojiSize = CommonUtils.dp2px(context, EMOJI_SIZE);
+        mTouchHelper = new EmojiTouchHelper(this);
+        ViewCompat.setAccessibilityDelegate(this, mTouchHelper);
+        setEmojis(emojis);
     }
 
-    // init set
-    private void init() {
-        setColumnWidth(CommonUtils.dp2px(getContext(), COLUMN_WIDTH));
-        int color = Color.parseColor("#f4f4f6");
-        setCacheColorHint(color);
-        setDrawingCacheBackgroundColor(color);
-        setBackgroundColor(color);
-        setNumColumns(COLUMNS);
-        setSelector(new ColorDrawable(color));
-        setVerticalSpacing(CommonUtils.dp2px(getContext(), 10));
-        setFadingEdgeLength(0);
-
-        EmojiAdapter adapter = new EmojiAdapter(getContext(), mEmojicons);
-        setAdapter(adapter);
+    /**
+     * 设置或者复用页面时替换显示的表情</br>
+     * 
+     * @param emojis
+     */
+    public void setEmojis(EmojiBean[] emojis) {
+        mEmojicons = emojis;
+        if (mEmojiIds == null || mEmojiIds.length < emojis.length) {
+            mEmojiIds = new int[emojis.length];
+        }
+        for (int i = 0; i < emojis.length; i++) {
+            mEmojiIds[i] = EmojiHandler.getEmojiId(emojis[i].getEmoji());
+        }
+        mPressedPosition = -1;
+        mTouchHelper.invalidateRoot();
+        invalidate();
     }
 
     /**
@@ -78,13 +112,170 @@ class EmojiPage extends GridView {
      * @param listener
      */
     public void setOnItemClickListener(final OnEmojiItemClickListener listener) {
-        setOnItemClickListener(new OnItemClickListener() {
+        mListener = listener;
+    }
 
-            @Override
-            public void onItemClick(AdapterView<?> parent, View view, int position, long id) {
-                listener.onItemClick(mEmojicons[position]);
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int rows = (mEmojicons.length + COLUMNS - 1) / COLUMNS;
+        int height = getPaddingTop() + getPaddingBottom() + rows * mRowHeight
+                + Math.max(0, rows - 1) * mVerticalSpacing;
+        setMeasuredDimension(getDefaultSize(getSuggestedMinimumWidth(), widthMeasureSpec),
+                resolveSize(height, heightMeasureSpec));
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        float cellWidth = getCellWidth();
+        float rowPitch = getRowPitch();
+        for (int i = 0; i < mEmojicons.length; i++) {
+            int id = mEmojiIds[i];
+            if (id == EmojiMatcher.NO_VALUE) {
+                continue;
             }
-        });
+            float left = getPaddingLeft() + (i % COLUMNS) * cellWidth + (cellWidth - mEmojiSize) / 2;
+            float top = getPaddingTop() + (i / COLUMNS) * rowPitch
+                    + (rowPitch - mVerticalSpacing - mEmojiSize) / 2;
+            EmojiRenderer.draw(canvas, id, mEmojiSize, left, top);
+        }
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        switch (event.getAction()) {
+            case MotionEvent.ACTION_DOWN:
+                mPressedPosition = positionAt(event.getX(), event.getY());
+                return mPressedPosition >= 0;
+            case MotionEvent.ACTION_UP:
+                int position = positionAt(event.getX(), event.getY());
+                if (position >= 0 && position == mPressedPosition) {
+                    performItemClick(position);
+                }
+                mPressedPosition = -1;
+                return true;
+            case MotionEvent.ACTION_CANCEL:
+                mPressedPosition = -1;
+                return true;
+            default:
+                return mPressedPosition >= 0;
+        }
+    }
+
+    @Override
+    protected boolean dispatchHoverEvent(MotionEvent event) {
+        return mTouchHelper.dispatchHoverEvent(event) || super.dispatchHoverEvent(event);
+    }
+
+    private void performItemClick(int position) {
+        playSoundEffect(SoundEffectConstants.CLICK);
+        if (mListener != null) {
+            mListener.onItemClick(mEmojicons[position]);
+        }
+        mTouchHelper.sendEventForVirtualView(position, AccessibilityEvent.TYPE_VIEW_CLICKED);
+    }
+
+    /**
+     * 点击位置对应的表情下标，点在格子之外时返回-1
+     */
+    private int positionAt(float x, float y) {
+        float cellWidth = getCellWidth();
+        float rowPitch = getRowPitch();
+        x -= getPaddingLeft();
+        y -= getPaddingTop();
+        if (x < 0 || y < 0 || cellWidth <= 0) {
+            return -1;
+        }
+        int column = (int) (x / cellWidth);
+        int row = (int) (y / rowPitch);
+        // 行间距不响应点击
+        if (column >= COLUMNS || y - row * rowPitch > rowPitch - mVerticalSpacing) {
+            return -1;
+        }
+        int position = row * COLUMNS + column;
+        return position < mEmojicons.length ? position : -1;
     }
 
+    /**
+     * position处格子的点击区域，与{@link #positionAt(float, float)}一致
+     */
+    private void getCellBounds(int position, Rect bounds) {
+        float cellWidth = getCellWidth();
+        float rowPitch = getRowPitch();
+        float left = getPaddingLeft() + (position % COLUMNS) * cellWidth;
+        float top = getPaddingTop() + (position / COLUMNS) * rowPitch;
+        bounds.set((int) left, (int) top, (int) (left + cellWidth),
+                (int) (top + rowPitch - mVerticalSpacing));
+    }
+
+    /**
+     * 无障碍服务读出的描述，删除按钮读"删除"
+     */
+    private CharSequence getDescription(int position) {
+        String emoji = mEmojicons[position].getEmoji();
+        if (EmojiView.DELETE_KEY.equals(emoji)) {
+            return ResFinder.getString("emoji_delete");
+        }
+        return emoji;
+    }
+
+    /**
+     * 相邻两行起点的距离。View比内容高时(例如面板高度与输入法一致)，多出的高度平均分给每一行
+     */
+    private float getRowPitch() {
+        int rows = Math.max(1, (mEmojicons.length + COLUMNS - 1) / COLUMNS);
+        float available = getHeight() - getPaddingTop() - getPaddingBottom() + mVerticalSpacing;
+        return Math.max(mRowHeight + mVerticalSpacing, available / rows);
+    }
+
+    private float getCellWidth() {
+        return (getWidth() - getPaddingLeft() - getPaddingRight()) / (float) COLUMNS;
+    }
+
+    /**
+     * 把每个格子作为一个虚拟View，下标即虚拟View的id
+     */
+    private class EmojiTouchHelper extends ExploreByTouchHelper {
+
+        EmojiTouchHelper(View host) {
+            super(host);
+        }
+
+        @Override
+        protected int getVirtualViewAt(float x, float y) {
+            int position = positionAt(x, y);
+            return position >= 0 ? position : INVALID_ID;
+        }
+
+        @Override
+        protected void getVisibleVirtualViews(List<Integer> virtualViewIds) {
+            for (int i = 0; i < mEmojicons.length; i++) {
+                virtualViewIds.add(i);
+            }
+        }
+
+        @Override
+        protected void onPopulateEventForVirtualView(int virtualViewId, AccessibilityEvent event) {
+            event.setContentDescription(getDescription(virtualViewId));
+        }
+
+        @Override
+        protected void onPopulateNodeForVirtualView(int virtualViewId,
+                AccessibilityNodeInfoCompat node) {
+            node.setContentDescription(getDescription(virtualViewId));
+            getCellBounds(virtualViewId, mCellBounds);
+            node.setBoundsInParent(mCellBounds);
+            node.addAction(AccessibilityNodeInfoCompat.ACTION_CLICK);
+        }
+
+        @Override
+        protected boolean onPerformActionForVirtualView(int virtualViewId, int action,
+                Bundle arguments) {
+            if (action == AccessibilityNodeInfoCompat.ACTION_CLICK
+                    && virtualViewId < mEmojicons.length) {
+                performItemClick(virtualViewId);
+                return true;
+            }
+            return false;
+        }
+    }
 }
@@ -19,78 +19,83 @@ package com.pikachu.emoji.widget;
 import android.content.Context;
 import android.graphics.Canvas;
 import android.graphics.Paint;
-import android.graphics.drawable.Drawable;
-import android.text.style.DynamicDrawableSpan;
+import android.text.style.ReplacementSpan;
 
-import java.lang.ref.WeakReference;
+import com.pikachu.emoji.EmojiRenderer;
+import com.pikachu.emoji.core.EmojiTable;
 
 /**
+ * Immutable emojicon span. It holds no Context and no Drawable, only the
+ * emoji id; the image is cut from the emoji atlas by {@link EmojiRenderer}, so a Spanned carrying these spans can be
+ * cached and reused across texts and views without leaking an Activity.
+ * 
  * @author Hieu Rocker (rockerhieu@gmail.com)
  */
-public class EmojiSpan extends DynamicDrawableSpan {
+public class EmojiSpan extends ReplacementSpan {
 
-    private final Context mContext;
-
-    private final int mResourceId;
+    /**
+     * Emoji id, or {@link EmojiRenderer#DELETE_ICON}
+     */
+    private final int mEmojiId;
 
     private final int mSize;
 
-    private final int mTextSize;
-
-    private int mHeight;
+    /**
+     * Ascent reported to the layout, so that a line holding an emojicon of
+     * mSize stays centered on a line of the given text size
+     */
+    private final int mAscent;
 
-    private int mWidth;
-
-    private int mTop;
+    public EmojiSpan(int emojiId, int size, int textSize) {
+        mEmojiId = emojiId;
+        mSize = size;
+        mAscent = -((textSize - size) / 2 + size);
+    }
 
-    private Drawable mDrawable;
+    /**
+     * Before the emoji atlas, the second argument was a drawable resource id.
+     * Those drawables no longer exist, so such ids are rejected instead of
+     * being drawn as some unrelated atlas cell.
+     * 
+     * @deprecated the context is not needed any more, use
+     *             {@link #EmojiSpan(int, int, int)}
+     * @throws IllegalArgumentException if emojiId is neither an emoji id nor
+     *             {@link EmojiRenderer#DELETE_ICON}
+     */
+    @Deprecated
+    public EmojiSpan(Context context, int emojiId, int size, int textSize) {
+        this(checkEmojiId(emojiId), size, textSize);
+    }
 
-    private WeakReference<Drawable> mDrawableRef;
+    private static int checkEmojiId(int emojiId) {
+        if (emojiId != EmojiRenderer.DELETE_ICON && (emojiId < 0 || emojiId >= EmojiTable.size())) {
+            throw new IllegalArgumentException("Not an emoji id: 0x" + Integer.toHexString(emojiId)
+                    + ", drawable resource ids are no longer supported");
+        }
+        return emojiId;
+    }
 
-    public EmojiSpan(Context context, int resourceId, int size, int textSize) {
-        super(DynamicDrawableSpan.ALIGN_BASELINE);
-        mContext = context;
-        mResourceId = resourceId;
-        mWidth = mHeight = mSize = size;
-        mTextSize = textSize;
+    public int getEmojiId() {
+        return mEmojiId;
     }
 
-    @SuppressWarnings("deprecation")
-    public Drawable getDrawable() {
-        if (mDrawable == null) {
-            try {
-                mDrawable = mContext.getResources().getDrawable(mResourceId);
-                mHeight = mSize;
-                mWidth = mHeight * mDrawable.getIntrinsicWidth() / mDrawable.getIntrinsicHeight();
-                mTop = (mTextSize - mHeight) / 2;
-                mDrawable.setBounds(0, mTop, mWidth, mTop + mHeight);
-            } catch (Exception e) {
-                // swallow
-            }
-        }
-        return mDrawable;
+    public int getEmojiSize() {
+        return mSize;
     }
 
     @Override
-    public void draw(Canvas canvas, CharSequence text, int start, int end, float x, int top, int y, int bottom, Paint paint) {
-        //super.draw(canvas, text, start, end, x, top, y, bottom, paint);
-        Drawable b = getCachedDrawable();
-        canvas.save();
-
-        int transY = bottom - b.getBounds().bottom;
-        if (mVerticalAlignment == ALIGN_BASELINE) {
-          transY = top + ((bottom - top) / 2) - ((b.getBounds().bottom - b.getBounds().top) / 2) - mTop;
+    public int getSize(Paint paint, CharSequence text, int start, int end, Paint.FontMetricsInt fm) {
+        if (fm != null) {
+            fm.ascent = mAscent;
+            fm.descent = 0;
+            fm.top = fm.ascent;
+            fm.bottom = 0;
         }
-
-        canvas.translate(x, transY);
-        b.draw(canvas);
-        canvas.restore();
+        return mSize;
     }
 
-    private Drawable getCachedDrawable() {
-        if (mDrawableRef == null || mDrawableRef.get() == null) {
-            mDrawableRef = new WeakReference<Drawable>(getDrawable());
-        }
-        return mDrawableRef.get();
+    @Override
+    public void draw(Canvas canvas, CharSequence text, int start, int end, float x, int top, int y, int bottom, Paint paint) {
+        EmojiRenderer.draw(canvas, mEmojiId, mSize, x, top + (bottom - top - mSize) / 2);
     }
-}
\ No newline at end of file
+}
@@ -16,10 +16,13 @@
 
 package com.pikachu.emoji.widget;
 
+import com.pikachu.emoji.AsyncEmojiParser;
 import com.pikachu.emoji.EmojiHandler;
+import com.pikachu.emoji.cache.EmojiTextCache;
+import com.pikachu.emoji.utils.ResFinder;
 
 import android.content.Context;
-import android.text.SpannableStringBuilder;
+import android.text.Spanned;
 import android.text.TextUtils;
 import android.util.AttributeSet;
 import android.widget.TextView;
@@ -32,6 +35,7 @@ public class EmojiTextView extends TextView {
     private int mEmojiconTextSize;
     private int mTextStart = 0;
     private int mTextLength = -1;
+    private AsyncEmojiParser.Job mPendingJob;
 
     public EmojiTextView(Context context) {
         super(context);
@@ -49,6 +53,8 @@ public class EmojiTextView extends TextView {
     }
 
     private void init(AttributeSet attrs) {
+        // the emoji atlas is resolved through ResFinder when the spans are drawn
+        ResFinder.ensureContext(getContext());
         mEmojiconTextSize = (int) getTextSize();
         mEmojiconSize = 70;
         mTextStart = 0;
@@ -58,15 +64,50 @@ public class EmojiTextView extends TextView {
 
     @Override
     public void setText(CharSequence text, BufferType type) {
-        if (!TextUtils.isEmpty(text)) {
-            SpannableStringBuilder builder = new SpannableStringBuilder(text);
-            EmojiHandler.addEmojis(getContext(), builder, mEmojiconSize, mEmojiconTextSize,
-                    mTextStart, mTextLength);
-            text = builder;
-        }
+        cancelPendingJob();
+        // plain text rows are passed through untouched
+        text = EmojiHandler.emojify(text, mEmojiconSize, mEmojiconTextSize, mTextStart,
+                mTextLength);
         super.setText(text, type);
     }
 
+    /**
+     * Parse emojis on a background thread. The plain text is shown until the
+     * result is delivered; a later call to setText or setTextAsync, e.g. when
+     * a list row is rebound, cancels the pending parse.
+     */
+    public void setTextAsync(CharSequence text) {
+        cancelPendingJob();
+        if (TextUtils.isEmpty(text) || !EmojiHandler.mayContainEmojis(text)) {
+            super.setText(text, BufferType.NORMAL);
+            return;
+        }
+        Spanned cached = EmojiTextCache.getInstance().get(text, mEmojiconSize,
+                mEmojiconTextSize, mTextStart, mTextLength);
+        if (cached != null) {
+            super.setText(cached, BufferType.NORMAL);
+            return;
+        }
+
+        super.setText(text, BufferType.NORMAL);
+        mPendingJob = AsyncEmojiParser.parse(text, mEmojiconSize, mEmojiconTextSize, mTextStart,
+                mTextLength, new AsyncEmojiParser.Callback() {
+
+                    @Override
+                    public void onParsed(CharSequence result) {
+                        mPendingJob = null;
+                        EmojiTextView.super.setText(result, BufferType.NORMAL);
+                    }
+                });
+    }
+
+    private void cancelPendingJob() {
+        if (mPendingJob != null) {
+            mPendingJob.cancel();
+            mPendingJob = null;
+        }
+    }
+
     /**
      * Set the size of emojicon in pixels.
      */
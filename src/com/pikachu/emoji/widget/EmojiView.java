@@ -29,20 +29,37 @@ import java.util.List;
 
 import android.content.Context;
 import android.graphics.Color;
+import android.graphics.drawable.Drawable;
 import android.support.v4.view.PagerAdapter;
 import android.support.v4.view.ViewPager;
 import android.support.v4.view.ViewPager.OnPageChangeListener;
+import android.text.Editable;
+import android.text.InputFilter;
+import android.text.TextUtils;
+import android.text.TextWatcher;
 import android.util.AttributeSet;
+import android.util.SparseArray;
+import android.util.TypedValue;
 import android.view.Gravity;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.inputmethod.EditorInfo;
+import android.widget.EditText;
 import android.widget.ImageView;
 import android.widget.LinearLayout;
 
+import com.pikachu.emoji.AsyncEmojiParser;
 import com.pikachu.emoji.EmojiBean;
+import com.pikachu.emoji.EmojiHandler;
+import com.pikachu.emoji.EmojiRecents;
+import com.pikachu.emoji.EmojiRenderer;
 import com.pikachu.emoji.EmojiSource;
+import com.pikachu.emoji.cache.EmojiCacheManager;
+import com.pikachu.emoji.cache.TrimmableCache;
+import com.pikachu.emoji.core.EmojiSearchIndex;
 import com.pikachu.emoji.utils.CommonUtils;
 import com.pikachu.emoji.utils.ResFinder;
+import com.pikachu.emoji.utils.ResFinder.ResType;
 
 /**
  * Emoji borad
@@ -51,13 +68,52 @@ public class EmojiView extends LinearLayout implements OnPageChangeListener {
 
     private static final int PAGE_SIZE = 20; // size of page
     public static final String DELETE_KEY = "delete";
-    private static int BOARD_HEIGHT = 400; // height of emoji board
+    private static final int PAGER_HEIGHT = 140; // default height of pages (dp)
+    /**
+     * 面板的总高度，0表示按默认的页面高度自适应
+     */
+    private int mBoardHeight = 0;
+    /**
+     * 输入法是否正在显示，由{@link EmojiBoard}在布局变化时设置
+     */
+    private boolean mKeyboardVisible = false;
+    /**
+     * 估算一页表情占用的字节数，图片在共享的图集中，不计入
+     */
+    private static final int PAGE_BYTES = 2 * 1024;
+    /**
+     * 滑出窗口的页面最多缓存几个，供后面的页面复用
+     */
+    private static final int RECYCLED_PAGES = 2;
+    private ViewPager mViewPager;
     private EmojiPagerAdapter mAdapter = null;
+    private OnEmojiItemClickListener mItemClickListener;
+    private int mPageCount = 0;
+    /**
+     * 第一页是否为最近使用的emoji，第一次使用emoji后才出现
+     */
+    private boolean mHasRecentsPage = false;
+    private ViewGroup mIndicatorContainer;
     private List<ImageView> mIndicators = new ArrayList<ImageView>();
 
     private int mLastSelectViewPos = 0; // 上次选中的页面位置
-    private String mNormalIcon = "emoji_indicator_normal"; // 指示器未选中时的图片icon
-    private String mSelectIcon = "emoji_indicator_selected";// 指示器选中时的图片icon
+    private static final String NORMAL_ICON = "emoji_indicator_normal"; // 指示器未选中时的图片icon
+    private static final String SELECT_ICON = "emoji_indicator_selected";// 指示器选中时的图片icon
+    private static volatile boolean sPrewarming = false;
+    /**
+     * 搜索框，输入时在下面显示匹配的emoji，代替页面和指示器
+     */
+    private EditText mSearchView;
+    private EmojiPage mResultsPage;
+    /**
+     * 每次输入复用的搜索结果，正好占满一页
+     */
+    private final int[] mResultIds = new int[PAGE_SIZE + 1];
+    /**
+     * 指示器图片只加载一次，每个指示器从中创建共享Bitmap的Drawable
+     */
+    private Drawable.ConstantState mNormalState;
+    private Drawable.ConstantState mSelectState;
 
     /**
      * @param context
@@ -86,61 +142,345 @@ public class EmojiView extends LinearLayout implements OnPageChangeListener {
         init();
     }
 
-    private void computeBoardHeight() {
-        BOARD_HEIGHT = CommonUtils.dp2px(getContext(), 140);
-    }
-
     /**
-     * init. Set params and add show emoji views</br>
+     * init. Set params and add show emoji views. 页面在ViewPager需要时才创建，
+     * 只保留当前页及其相邻的页面</br>
      */
     @SuppressWarnings("deprecation")
     private void init() {
-        computeBoardHeight();
         setOrientation(LinearLayout.VERTICAL);
 
         setBackgroundColor(Color.parseColor("#f4f4f6"));
-        ViewPager viewPager = createVIewpager();
-        addView(viewPager);
+        mSearchView = createSearchView();
+        addView(mSearchView);
+        mViewPager = createVIewpager();
+        addView(mViewPager);
         ViewGroup container = createPointLinearlayout();
-        List<EmojiPage> datas = new ArrayList<EmojiPage>();
+        mIndicatorContainer = container;
         int lens = EmojiSource.DATA.length;
-        int pages = lens / PAGE_SIZE; // 总共pages个页面
-        for (int i = 0; i < pages; i++) {
-            EmojiBean[] blocks = new EmojiBean[PAGE_SIZE + 1];
-            System.arraycopy(EmojiSource.DATA, i * PAGE_SIZE, blocks, 0, blocks.length - 1);
-            blocks[PAGE_SIZE] = EmojiBean.fromChars(DELETE_KEY);
-            datas.add(new EmojiPage(getContext(), blocks)); // the last is
-                                                            // delete icon
-        }
-        // add remain emoji view
-        if (pages * PAGE_SIZE < lens) {
-            EmojiBean[] blocks = new EmojiBean[lens - pages * PAGE_SIZE];
-            System.arraycopy(EmojiSource.DATA, pages * PAGE_SIZE, blocks, 0, blocks.length);
-            datas.add(new EmojiPage(getContext(), blocks));
-        }
+        mHasRecentsPage = !EmojiRecents.getInstance(getContext()).isEmpty();
+        // 总共mPageCount个页面
+        mPageCount = (lens + PAGE_SIZE - 1) / PAGE_SIZE + (mHasRecentsPage ? 1 : 0);
 
+        mNormalState = ResFinder.getDrawable(NORMAL_ICON).getConstantState();
+        mSelectState = ResFinder.getDrawable(SELECT_ICON).getConstantState();
         // add indicator
-        for (int i = 0; i < datas.size(); i++) {
+        for (int i = 0; i < mPageCount; i++) {
             ImageView indicatorView = createIndicator();
             mIndicators.add(indicatorView);
             container.addView(indicatorView);
         }
         addView(container);
+        mResultsPage = createResultsPage();
+        addView(mResultsPage);
 
-        // set cache view count
-        viewPager.setOffscreenPageLimit(datas.size());
         // 默认选中第一项
-        mIndicators.get(mLastSelectViewPos).setImageDrawable(ResFinder.getDrawable(mSelectIcon));
-        mAdapter = new EmojiPagerAdapter(getContext(), datas);
-        viewPager.setAdapter(mAdapter);
-        viewPager.setOnPageChangeListener(this);
+        mIndicators.get(mLastSelectViewPos).setImageDrawable(newIndicator(true));
+        mAdapter = new EmojiPagerAdapter();
+        mViewPager.setAdapter(mAdapter);
+        mViewPager.setOnPageChangeListener(this);
+        // 最近使用的记录在后台读取，读取完成后再加上最近使用页
+        EmojiRecents.getInstance(getContext()).runWhenLoaded(new Runnable() {
+
+            @Override
+            public void run() {
+                if (!mHasRecentsPage && mAdapter != null) {
+                    refreshRecents();
+                }
+            }
+        });
+    }
+
+    /**
+     * 第position页的数据，有最近使用页时它是第一页</br>
+     * 
+     * @param position
+     * @return
+     */
+    private EmojiBean[] getPageData(int position) {
+        if (!mHasRecentsPage) {
+            return getCatalogPage(position);
+        }
+        return position == 0 ? getRecentsPage() : getCatalogPage(position - 1);
+    }
+
+    /**
+     * 最近使用的emoji，按得分排列，最后一项是删除按钮
+     */
+    private EmojiBean[] getRecentsPage() {
+        int[] ids = EmojiRecents.getInstance(getContext()).getTop(PAGE_SIZE);
+        EmojiBean[] blocks = new EmojiBean[ids.length + 1];
+        for (int i = 0; i < ids.length; i++) {
+            blocks[i] = EmojiSource.DATA[ids[i]];
+        }
+        blocks[ids.length] = EmojiBean.fromChars(DELETE_KEY);
+        return blocks;
+    }
+
+    /**
+     * 按{@link EmojiSource#DATA}顺序排列的第index页，除最后一页外，每页最后一项是删除按钮</br>
+     * 
+     * @param index
+     * @return
+     */
+    private static EmojiBean[] getCatalogPage(int index) {
+        int lens = EmojiSource.DATA.length;
+        int start = index * PAGE_SIZE;
+        if (start + PAGE_SIZE > lens) {
+            // remain emoji
+            EmojiBean[] blocks = new EmojiBean[lens - start];
+            System.arraycopy(EmojiSource.DATA, start, blocks, 0, blocks.length);
+            return blocks;
+        }
+        EmojiBean[] blocks = new EmojiBean[PAGE_SIZE + 1];
+        System.arraycopy(EmojiSource.DATA, start, blocks, 0, PAGE_SIZE);
+        blocks[PAGE_SIZE] = EmojiBean.fromChars(DELETE_KEY); // the last is delete icon
+        return blocks;
+    }
+
+    /**
+     * 在后台线程准备表情面板:构建emoji表和第一页的数据，读取最近使用的记录，查找面板用到的资源id，解码第一页的图片。
+     * 上一次预热还没有结束时直接返回</br>
+     * 
+     * @param context
+     */
+    static void prewarm(Context context) {
+        if (sPrewarming) {
+            return;
+        }
+        sPrewarming = true;
+        ResFinder.ensureContext(context);
+        final Context appContext = ResFinder.getApplicationContext();
+        final int emojiSize = CommonUtils.dp2px(context, EmojiPage.EMOJI_SIZE);
+        AsyncEmojiParser.execute(new Runnable() {
+
+            @Override
+            public void run() {
+                try {
+                    ResFinder.getLayout("emoji_view");
+                    ResFinder.getId("emoji_send");
+                    ResFinder.getId("emoji_imageview");
+                    ResFinder.getId("emoji_editview");
+                    ResFinder.getId("emoji_board");
+                    ResFinder.getResourceId(ResType.DRAWABLE, "emoji_icon");
+                    ResFinder.getResourceId(ResType.DRAWABLE, "emoji_keyboard");
+                    ResFinder.getResourceId(ResType.DRAWABLE, NORMAL_ICON);
+                    ResFinder.getResourceId(ResType.DRAWABLE, SELECT_ICON);
+                    if (EmojiSource.DATA.length == 0) {
+                        return;
+                    }
+                    // 开始在后台读取最近使用的记录
+                    EmojiRecents.getInstance(appContext);
+                    EmojiBean[] emojis = getCatalogPage(0);
+                    for (int i = 0; i < emojis.length; i++) {
+                        EmojiRenderer.prepare(EmojiHandler.getEmojiId(emojis[i].getEmoji()),
+                                emojiSize);
+                    }
+                } finally {
+                    sPrewarming = false;
+                }
+            }
+        });
+    }
+
+    /**
+     * 设置面板的总高度，通常为输入法的高度，这样面板和输入法切换时上面的内容不需要重新布局。
+     * 页面占据指示器以外的全部高度</br>
+     * 
+     * @param height 高度(px)，0表示恢复默认高度
+     */
+    public void setBoardHeight(int height) {
+        height = Math.max(0, height);
+        if (height == mBoardHeight) {
+            return;
+        }
+        mBoardHeight = height;
+        applyContentHeight(mViewPager);
+        applyContentHeight(mResultsPage);
+        ViewGroup.LayoutParams params = getLayoutParams();
+        if (params != null) {
+            params.height = height > 0 ? height : ViewGroup.LayoutParams.WRAP_CONTENT;
+            setLayoutParams(params);
+        } else {
+            requestLayout();
+        }
+    }
+
+    public int getBoardHeight() {
+        return mBoardHeight;
+    }
+
+    /**
+     * 输入法显示或隐藏时调用。设置了面板高度时，输入法显示期间面板不占高度，
+     * 测量时直接使用这个状态，不再查询窗口的可见区域</br>
+     * 
+     * @param visible 输入法是否正在显示
+     */
+    public void setKeyboardVisible(boolean visible) {
+        if (visible == mKeyboardVisible) {
+            return;
+        }
+        mKeyboardVisible = visible;
+        if (mBoardHeight > 0) {
+            requestLayout();
+        }
+    }
+
+    /**
+     * 页面(以及搜索结果)占据面板中其他控件以外的全部高度，没有设置面板高度时使用默认高度
+     */
+    private void applyContentHeight(View view) {
+        LinearLayout.LayoutParams params = (LinearLayout.LayoutParams) view.getLayoutParams();
+        params.height = mBoardHeight > 0 ? 0 : CommonUtils.dp2px(getContext(), PAGER_HEIGHT);
+        params.weight = mBoardHeight > 0 ? 1 : 0;
+    }
+
+    /**
+     * 搜索框是否有焦点。此时输入法和面板同时显示，面板只保留搜索框和搜索结果的高度
+     */
+    public boolean isSearching() {
+        return mSearchView.hasFocus();
+    }
+
+    /**
+     * 清空搜索框，恢复显示表情页面</br>
+     */
+    public void clearSearch() {
+        if (mSearchView.length() > 0) {
+            mSearchView.setText("");
+        }
+        mSearchView.clearFocus();
+    }
+
+    /**
+     * 每次输入都在关键字索引中查找，只为结果创建一个数组</br>
+     * 
+     * @param query
+     */
+    private void search(CharSequence query) {
+        int count = EmojiSearchIndex.getDefault().search(query, mResultIds);
+        boolean searching = TextUtils.getTrimmedLength(query) > 0;
+        if (searching) {
+            EmojiBean[] results = new EmojiBean[count];
+            for (int i = 0; i < count; i++) {
+                results[i] = EmojiSource.DATA[mResultIds[i]];
+            }
+            mResultsPage.setEmojis(results);
+        }
+        mResultsPage.setVisibility(searching ? View.VISIBLE : View.GONE);
+        mViewPager.setVisibility(searching ? View.GONE : View.VISIBLE);
+        mIndicatorContainer.setVisibility(searching ? View.GONE : View.VISIBLE);
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        if (mBoardHeight > 0 && isSearching()) {
+            // 输入法也在显示，面板只占搜索框和结果需要的高度
+            super.onMeasure(widthMeasureSpec, MeasureSpec.makeMeasureSpec(0,
+                    MeasureSpec.UNSPECIFIED));
+            return;
+        }
+        if (mBoardHeight > 0 && mKeyboardVisible) {
+            // 输入法还在时面板不占高度，EmojiBoard发现输入法收起后面板在下一次布局中展开，上面内容的高度始终不变
+            setMeasuredDimension(MeasureSpec.getSize(widthMeasureSpec), 0);
+            return;
+        }
+        super.onMeasure(widthMeasureSpec, heightMeasureSpec);
     }
 
     public void setOnEmojiItemClickListener(OnEmojiItemClickListener listener) {
-        List<EmojiPage> views = mAdapter.getDataSource();
-        for (EmojiPage view : views) {
-            view.setOnItemClickListener(listener);
+        mItemClickListener = listener;
+        if (mAdapter != null) {
+            mAdapter.setOnItemClickListener(listener);
+        }
+        mResultsPage.setOnItemClickListener(listener);
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        EmojiCacheManager.getInstance().register(mPageCache);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        EmojiCacheManager.getInstance().unregister(mPageCache);
+    }
+
+    @Override
+    protected void onVisibilityChanged(View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+        if (mViewPager == null) {
+            return;
+        }
+        if (!isShown()) {
+            // 面板隐藏后下次打开时从表情页面开始
+            clearSearch();
+            return;
+        }
+        // 页面被释放后，再次显示时重新创建
+        if (mAdapter == null) {
+            mAdapter = new EmojiPagerAdapter();
+            mViewPager.setAdapter(mAdapter);
+            mViewPager.setCurrentItem(mLastSelectViewPos, false);
+        }
+        refreshRecents();
+    }
+
+    /**
+     * 面板显示时更新最近使用页，面板显示期间不调整顺序，避免点击的位置发生变化
+     */
+    private void refreshRecents() {
+        if (mHasRecentsPage) {
+            mAdapter.refreshPage(0);
+            return;
+        }
+        if (EmojiRecents.getInstance(getContext()).isEmpty()) {
+            return;
+        }
+        // 第一次有了最近使用的emoji，在最前面加一页
+        mHasRecentsPage = true;
+        mPageCount++;
+        ImageView indicatorView = createIndicator();
+        mIndicators.add(0, indicatorView);
+        mIndicatorContainer.addView(indicatorView, 0);
+        mLastSelectViewPos++;
+        mAdapter = new EmojiPagerAdapter();
+        mViewPager.setAdapter(mAdapter);
+        mViewPager.setCurrentItem(mLastSelectViewPos, false);
+    }
+
+    /**
+     * 内存紧张时先释放复用池中的页面；表情面板不可见时释放所有页面
+     */
+    private final TrimmableCache mPageCache = new TrimmableCache() {
+
+        @Override
+        public String getName() {
+            return "board pages";
+        }
+
+        @Override
+        public int getBytes() {
+            return mAdapter == null ? 0 : mAdapter.getPageCount() * PAGE_BYTES;
+        }
+
+        @Override
+        public void trimToSize(int maxBytes) {
+            if (mAdapter == null) {
+                return;
+            }
+            mAdapter.clearRecycledPages();
+            if (maxBytes == 0 && !isShown()) {
+                mAdapter = null;
+                mViewPager.setAdapter(null);
+            }
         }
+    };
+
+    private Drawable newIndicator(boolean selected) {
+        return (selected ? mSelectState : mNormalState).newDrawable(getResources());
     }
 
     /**
@@ -153,11 +493,65 @@ public class EmojiView extends LinearLayout implements OnPageChangeListener {
         LinearLayout.LayoutParams params = new LinearLayout.LayoutParams(30, 30);
         params.gravity = Gravity.CENTER;
         imageView.setLayoutParams(params);
-        imageView.setImageDrawable(ResFinder.getDrawable(mNormalIcon));
+        imageView.setImageDrawable(newIndicator(false));
         imageView.setPadding(0, 0, 10, 0);
         return imageView;
     }
 
+    /**
+     * 面板顶部的搜索框</br>
+     * 
+     * @return
+     */
+    private EditText createSearchView() {
+        EditText searchView = new EditText(getContext());
+        LinearLayout.LayoutParams params = new LinearLayout.LayoutParams(
+                LayoutParams.MATCH_PARENT, LayoutParams.WRAP_CONTENT);
+        int margin = CommonUtils.dp2px(getContext(), 8);
+        params.leftMargin = margin;
+        params.rightMargin = margin;
+        params.topMargin = margin;
+        searchView.setLayoutParams(params);
+        searchView.setSingleLine(true);
+        searchView.setTextSize(TypedValue.COMPLEX_UNIT_SP, 14);
+        searchView.setHint(ResFinder.getString("emoji_search_hint"));
+        searchView.setImeOptions(EditorInfo.IME_ACTION_SEARCH | EditorInfo.IME_FLAG_NO_EXTRACT_UI);
+        searchView.setFilters(new InputFilter[] {
+                new InputFilter.LengthFilter(EmojiSearchIndex.MAX_QUERY_LENGTH)
+        });
+        searchView.addTextChangedListener(new TextWatcher() {
+
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                search(s);
+            }
+        });
+        return searchView;
+    }
+
+    /**
+     * 显示搜索结果的页面，没有搜索时隐藏</br>
+     * 
+     * @return
+     */
+    private EmojiPage createResultsPage() {
+        EmojiPage page = new EmojiPage(getContext(), new EmojiBean[0]);
+        LinearLayout.LayoutParams params = new LinearLayout.LayoutParams(
+                LayoutParams.MATCH_PARENT, CommonUtils.dp2px(getContext(), PAGER_HEIGHT));
+        page.setLayoutParams(params);
+        page.setPadding(0, 15, 0, 0);
+        page.setVisibility(View.GONE);
+        return page;
+    }
+
     /**
      * </br>
      * 
@@ -185,26 +579,26 @@ public class EmojiView extends LinearLayout implements OnPageChangeListener {
         ViewPager viewPager = new ViewPager(getContext());
         ViewPager.LayoutParams params = new ViewPager.LayoutParams();
         params.width = android.support.v4.view.ViewPager.LayoutParams.MATCH_PARENT;
-        params.height = BOARD_HEIGHT;
+        params.height = CommonUtils.dp2px(getContext(), PAGER_HEIGHT);
         viewPager.setLayoutParams(params);
         viewPager.setPadding(0, 15, 0, 0);
         return viewPager;
     }
 
     /**
-     * ViewPager Adapter
+     * ViewPager Adapter. 滑出窗口的页面放入复用池，创建新页面时优先复用
      */
     private class EmojiPagerAdapter extends PagerAdapter {
 
-        private List<EmojiPage> mViews = new ArrayList<EmojiPage>();
-
-        public EmojiPagerAdapter(Context context, List<EmojiPage> views) {
-            mViews.addAll(views);
-        }
+        /**
+         * 当前在ViewPager中的页面
+         */
+        private SparseArray<EmojiPage> mViews = new SparseArray<EmojiPage>();
+        private List<EmojiPage> mRecycledViews = new ArrayList<EmojiPage>(RECYCLED_PAGES);
 
         @Override
         public int getCount() {
-            return mViews.size();
+            return mPageCount;
         }
 
         @Override
@@ -214,16 +608,59 @@ public class EmojiView extends LinearLayout implements OnPageChangeListener {
 
         @Override
         public Object instantiateItem(ViewGroup container, int position) {
-            container.addView(mViews.get(position), position);
-            return mViews.get(position);
+            EmojiPage page;
+            if (mRecycledViews.isEmpty()) {
+                page = new EmojiPage(getContext(), getPageData(position));
+                if (mItemClickListener != null) {
+                    page.setOnItemClickListener(mItemClickListener);
+                }
+            } else {
+                page = mRecycledViews.remove(mRecycledViews.size() - 1);
+                page.setEmojis(getPageData(position));
+            }
+            mViews.put(position, page);
+            container.addView(page);
+            return page;
         }
 
         @Override
         public void destroyItem(ViewGroup container, int position, Object object) {
+            EmojiPage page = (EmojiPage) object;
+            container.removeView(page);
+            mViews.remove(position);
+            if (mRecycledViews.size() < RECYCLED_PAGES) {
+                mRecycledViews.add(page);
+            }
+        }
+
+        public void setOnItemClickListener(OnEmojiItemClickListener listener) {
+            for (int i = 0; i < mViews.size(); i++) {
+                mViews.valueAt(i).setOnItemClickListener(listener);
+            }
+            for (EmojiPage page : mRecycledViews) {
+                page.setOnItemClickListener(listener);
+            }
+        }
+
+        /**
+         * 重新绑定第position页的数据，页面还没有创建时不做任何事
+         */
+        public void refreshPage(int position) {
+            EmojiPage page = mViews.get(position);
+            if (page != null) {
+                page.setEmojis(getPageData(position));
+            }
         }
 
-        public List<EmojiPage> getDataSource() {
-            return mViews;
+        public void clearRecycledPages() {
+            mRecycledViews.clear();
+        }
+
+        /**
+         * 已经创建的页面数
+         */
+        public int getPageCount() {
+            return mViews.size() + mRecycledViews.size();
         }
     }
 
@@ -251,8 +688,8 @@ public class EmojiView extends LinearLayout implements OnPageChangeListener {
 
     @Override
     public void onPageSelected(int pos) {
-        mIndicators.get(mLastSelectViewPos).setImageDrawable(ResFinder.getDrawable(mNormalIcon));
-        mIndicators.get(pos).setImageDrawable(ResFinder.getDrawable(mSelectIcon));
+        mIndicators.get(mLastSelectViewPos).setImageDrawable(newIndicator(false));
+        mIndicators.get(pos).setImageDrawable(newIndicator(true));
         mLastSelectViewPos = pos;
     }
 
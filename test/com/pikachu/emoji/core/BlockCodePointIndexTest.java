@@ -0,0 +1,112 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2015 Umeng, Inc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.pikachu.emoji.core;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * @author BinGoBinBin
+ */
+public class BlockCodePointIndexTest {
+
+    @Test
+    public void findsEveryEntryAndNothingElse() {
+        Random random = new Random(5);
+        Map<Integer, Integer> expected = new HashMap<Integer, Integer>();
+        int[] codePoints = new int[3000];
+        int[] values = new int[codePoints.length];
+        for (int i = 0; i < codePoints.length; i++) {
+            codePoints[i] = random.nextInt(Character.MAX_CODE_POINT + 1);
+            values[i] = i;
+            expected.put(codePoints[i], i);
+        }
+        CodePointIndex index = BlockCodePointIndex.build(codePoints, values);
+        for (int codePoint = 0; codePoint <= Character.MAX_CODE_POINT; codePoint++) {
+            Integer value = expected.get(codePoint);
+            assertEquals(value == null ? CodePointIndex.NO_VALUE : value.intValue(),
+                    index.get(codePoint));
+        }
+    }
+
+    @Test
+    public void lookupsOutsideTheTableReturnNoValue() {
+        CodePointIndex index = BlockCodePointIndex.build(new int[] {
+                0x2600
+        }, new int[] {
+                4
+        });
+        assertEquals(4, index.get(0x2600));
+        assertEquals(CodePointIndex.NO_VALUE, index.get(0x25ff));
+        assertEquals(CodePointIndex.NO_VALUE, index.get(0x1f600));
+        assertEquals(CodePointIndex.NO_VALUE, index.get(Character.MAX_CODE_POINT));
+        assertEquals(CodePointIndex.NO_VALUE, index.get(-1));
+    }
+
+    @Test
+    public void emptyIndexReturnsNoValue() {
+        CodePointIndex index = BlockCodePointIndex.build(new int[0], new int[0]);
+        assertEquals(CodePointIndex.NO_VALUE, index.get(0));
+        assertEquals(CodePointIndex.NO_VALUE, index.get(0x1f600));
+    }
+
+    @Test
+    public void duplicateCodePointsKeepTheLastValue() {
+        CodePointIndex index = BlockCodePointIndex.build(new int[] {
+                0x1f600, 0x1f600
+        }, new int[] {
+                1, 2
+        });
+        assertEquals(2, index.get(0x1f600));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidCodePoints() {
+        BlockCodePointIndex.build(new int[] {
+                Character.MAX_CODE_POINT + 1
+        }, new int[] {
+                0
+        });
+    }
+
+    @Test
+    public void emojiTableIndexFindsFirstId() {
+        for (int id = 0; id < EmojiTable.size(); id++) {
+            // 与原来的线性查找一致，重复时返回第一个
+            int first = 0;
+            while (EmojiTable.getCodePoint(first) != EmojiTable.getCodePoint(id)) {
+                first++;
+            }
+            assertEquals(first, EmojiTable.indexOf(EmojiTable.getCodePoint(id)));
+        }
+        assertEquals(EmojiMatcher.NO_VALUE, EmojiTable.indexOf('a'));
+        assertEquals(EmojiMatcher.NO_VALUE, EmojiTable.indexOf(Character.MAX_CODE_POINT + 1));
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2015 Umeng, Inc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.pikachu.emoji.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * @author BinGoBinBin
+ */
+public class CarrierEmojiTest {
+
+    @Test
+    public void transcodesSoftbankCharacters() {
+        assertEquals("hi 😄!", CarrierEmoji.transcode("hi \ue415!", CarrierEmoji.SOFTBANK)
+                .toString());
+    }
+
+    @Test
+    public void transcodesSequenceReplacements() {
+        // 国旗和keycap替换成多个code point
+        assertEquals("🇯🇵 1⃣", CarrierEmoji.transcode("\ue50b \ue21c", CarrierEmoji.SOFTBANK)
+                .toString());
+    }
+
+    @Test
+    public void transcodesDocomoCharacters() {
+        assertEquals("☀", CarrierEmoji.transcode("\ue63e", CarrierEmoji.DOCOMO).toString());
+    }
+
+    @Test
+    public void transcodesKnownCharactersOfEachCarrier() {
+        assertTranscode(CarrierEmoji.SOFTBANK, '\ue312', 0x1f389);
+        assertTranscode(CarrierEmoji.SOFTBANK, '\ue326', 0x1f3b6);
+        assertTranscode(CarrierEmoji.SOFTBANK, '\ue537', 0x2122);
+        assertTranscode(CarrierEmoji.DOCOMO, '\ue6ec', 0x2764);
+        assertTranscode(CarrierEmoji.DOCOMO, '\ue6f0', 0x1f603);
+        assertTranscode(CarrierEmoji.DOCOMO, '\ue70b', 0x1f197);
+        assertTranscode(CarrierEmoji.DOCOMO, '\ue727', 0x1f44d);
+        assertTranscode(CarrierEmoji.DOCOMO, '\ue757', 0x1f631);
+        assertTranscode(CarrierEmoji.KDDI, '\ue488', 0x2600);
+        assertTranscode(CarrierEmoji.KDDI, '\ue48f', 0x2648);
+    }
+
+    @Test
+    public void tablesCoverTheCarrierRanges() {
+        // SoftBank E001-E537和DoCoMo E63E-E757中有Unicode对应的字符几乎都在表中
+        assertTrue(countMapped(CarrierEmoji.SOFTBANK) >= 460);
+        assertTrue(countMapped(CarrierEmoji.DOCOMO) >= 230);
+        assertTrue(countMapped(CarrierEmoji.KDDI) > 0);
+    }
+
+    @Test
+    public void carriersUseTheirOwnTables() {
+        // e415在DoCoMo的范围之外
+        assertEquals("\ue415", CarrierEmoji.transcode("\ue415", CarrierEmoji.DOCOMO).toString());
+    }
+
+    @Test
+    public void keepsUnmappedPrivateUseCharacters() {
+        String text = "icon \uf001 and \ue000";
+        assertSame(text, CarrierEmoji.transcode(text, CarrierEmoji.SOFTBANK));
+    }
+
+    @Test
+    public void rangeTranscodeCountsReplacements() {
+        StringBuilder out = new StringBuilder();
+        assertEquals(2, CarrierEmoji.transcode("a\ue415b\ue415c", 1, 4, CarrierEmoji.SOFTBANK,
+                out));
+        assertEquals("😄b😄", out.toString());
+    }
+
+    @Test
+    public void defaultMatcherIgnoresPrivateUseCharacters() {
+        int[] out = new int[EmojiScanner.STRIDE];
+        assertEquals(0, new EmojiScanner(EmojiTable.newMatcher()).scan("\ue415", 0, 1, out));
+        assertEquals(1, new EmojiScanner(EmojiTable.newMatcher(CarrierEmoji.SOFTBANK)).scan(
+                "\ue415", 0, 1, out));
+        assertEquals(EmojiTable.indexOf(0x1f604), out[2]);
+    }
+
+    @Test
+    public void findReturnsNoValueOutsideTheTable() {
+        assertEquals(EmojiMatcher.NO_VALUE, CarrierEmoji.find(CarrierEmoji.SOFTBANK, 'a'));
+        assertEquals(EmojiMatcher.NO_VALUE, CarrierEmoji.find(CarrierEmoji.SOFTBANK,
+                (char) (CarrierEmoji.getRangeEnd(CarrierEmoji.SOFTBANK))));
+    }
+
+    private static void assertTranscode(int carrier, char c, int codePoint) {
+        assertEquals(new String(Character.toChars(codePoint)), CarrierEmoji.transcode(
+                String.valueOf(c), carrier).toString());
+    }
+
+    private static int countMapped(int carrier) {
+        int count = 0;
+        int end = CarrierEmoji.getRangeEnd(carrier);
+        for (int c = CarrierEmoji.getRangeStart(carrier); c < end; c++) {
+            if (CarrierEmoji.find(carrier, (char) c) >= 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
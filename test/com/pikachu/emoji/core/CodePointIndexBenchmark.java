@@ -0,0 +1,180 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2015 Umeng, Inc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.pikachu.emoji.core;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * 比较{@link BlockCodePointIndex}与SparseIntArray.get使用的二分查找，即引入BlockCodePointIndex时提交说明中的数据。
+ * 不是单元测试，ant test-core编译之后在JVM上直接运行：
+ * 
+ * <pre>
+ * java -cp bin/test-core com.pikachu.emoji.core.CodePointIndexBenchmark
+ * </pre>
+ * 
+ * 查询一半命中表中的code point，一半是U+1F300..U+1F6FF中不在表里的code point。
+ * 分别测试当前的emoji表和3000项的合成表，每种各预热后测量{@link #RUNS}次.
+ * 
+ * @author BinGoBinBin
+ */
+public final class CodePointIndexBenchmark {
+
+    private static final int QUERIES = 1 << 16;
+    /**
+     * 每次测量的查找次数约为13M
+     */
+    private static final int ROUNDS = 200;
+    private static final int RUNS = 5;
+    private static final int MISS_START = 0x1f300;
+    private static final int MISS_END = 0x1f700;
+
+    /**
+     * 防止查找结果被优化掉
+     */
+    private static int sSink;
+
+    public static void main(String[] args) {
+        run("current table", EmojiTable.CODE_POINTS);
+        run("synthetic", syntheticTable(3000, new Random(1)));
+    }
+
+    private static void run(String name, int[] codePoints) {
+        int[] keys = codePoints.clone();
+        Arrays.sort(keys);
+        int[] values = new int[keys.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i;
+        }
+        CodePointIndex index = BlockCodePointIndex.build(keys, values);
+        int[] queries = queries(keys, new Random(2));
+
+        System.out.println(name + ", " + keys.length + " entries, " + (long) QUERIES * ROUNDS
+                + " lookups per run");
+        for (int run = -1; run < RUNS; run++) {
+            long binary = timeBinarySearch(keys, values, queries);
+            long block = timeIndex(index, queries);
+            if (run >= 0) {
+                // 第一次为预热
+                System.out.printf("  binary search %.1f ns/op, block %.1f ns/op%n",
+                        binary / (double) (QUERIES * ROUNDS),
+                        block / (double) (QUERIES * ROUNDS));
+            }
+        }
+    }
+
+    private static long timeBinarySearch(int[] keys, int[] values, int[] queries) {
+        long start = System.nanoTime();
+        int sink = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int i = 0; i < queries.length; i++) {
+                sink += sparseGet(keys, values, queries[i]);
+            }
+        }
+        sSink += sink;
+        return System.nanoTime() - start;
+    }
+
+    private static long timeIndex(CodePointIndex index, int[] queries) {
+        long start = System.nanoTime();
+        int sink = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int i = 0; i < queries.length; i++) {
+                sink += index.get(queries[i]);
+            }
+        }
+        sSink += sink;
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * SparseIntArray.get(key, NO_VALUE)的查找过程
+     */
+    private static int sparseGet(int[] keys, int[] values, int key) {
+        int low = 0;
+        int high = keys.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midKey = keys[mid];
+            if (midKey < key) {
+                low = mid + 1;
+            } else if (midKey > key) {
+                high = mid - 1;
+            } else {
+                return values[mid];
+            }
+        }
+        return CodePointIndex.NO_VALUE;
+    }
+
+    private static int[] queries(int[] keys, Random random) {
+        Set<Integer> present = new HashSet<Integer>();
+        for (int key : keys) {
+            present.add(key);
+        }
+        int[] queries = new int[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            if ((i & 1) == 0) {
+                queries[i] = keys[random.nextInt(keys.length)];
+            } else {
+                int miss;
+                do {
+                    miss = MISS_START + random.nextInt(MISS_END - MISS_START);
+                } while (present.contains(miss));
+                queries[i] = miss;
+            }
+        }
+        // 打乱顺序，避免分支预测总是命中
+        for (int i = QUERIES - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = queries[i];
+            queries[i] = queries[j];
+            queries[j] = tmp;
+        }
+        return queries;
+    }
+
+    /**
+     * 分布在emoji常用区段的count个不同的code point
+     */
+    private static int[] syntheticTable(int count, Random random) {
+        int[][] ranges = {
+                { 0x2000, 0x2c00 }, { 0x1f000, 0x1fb00 }
+        };
+        Set<Integer> codePoints = new HashSet<Integer>();
+        while (codePoints.size() < count) {
+            int[] range = ranges[random.nextInt(ranges.length)];
+            codePoints.add(range[0] + random.nextInt(range[1] - range[0]));
+        }
+        int[] result = new int[count];
+        int i = 0;
+        for (int codePoint : codePoints) {
+            result[i++] = codePoint;
+        }
+        return result;
+    }
+}
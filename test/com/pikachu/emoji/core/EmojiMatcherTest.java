@@ -0,0 +1,138 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2015 Umeng, Inc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.pikachu.emoji.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * @author BinGoBinBin
+ */
+public class EmojiMatcherTest {
+
+    private static final int A = 'a';
+    private static final int B = 'b';
+    private static final int C = 'c';
+    private static final int GRINNING = 0x1f600;
+    private static final int TONE = 0x1f3fd;
+
+    private final int[] mOut = new int[EmojiScanner.STRIDE];
+
+    @Test
+    public void longestSequenceWins() {
+        EmojiMatcher matcher = new EmojiMatcher.Builder().add(1, A).add(2, A, B).add(3, A, B, C)
+                .build();
+        assertMatch(matcher, "abcd", 0, 3, 3);
+        assertMatch(matcher, "abd", 0, 2, 2);
+        assertMatch(matcher, "ax", 0, 1, 1);
+    }
+
+    @Test
+    public void fallsBackToLastNodeWithValue() {
+        // "ab"本身不是序列，匹配失败时退回到"a"
+        EmojiMatcher matcher = new EmojiMatcher.Builder().add(1, A).add(3, A, B, C).build();
+        assertMatch(matcher, "abx", 0, 1, 1);
+    }
+
+    @Test
+    public void prefixWithoutValueDoesNotMatch() {
+        EmojiMatcher matcher = new EmojiMatcher.Builder().add(3, A, B, C).build();
+        assertEquals(-1, matcher.match("ab", 0, 2, mOut, 0));
+        assertEquals(-1, matcher.match("x", 0, 1, mOut, 0));
+    }
+
+    @Test
+    public void doesNotReadPastEnd() {
+        EmojiMatcher matcher = new EmojiMatcher.Builder().add(1, A).add(3, A, B, C).build();
+        assertMatch(matcher, "abc", 0, 1, 1, 2);
+    }
+
+    @Test
+    public void matchesSupplementaryCodePoints() {
+        EmojiMatcher matcher = new EmojiMatcher.Builder().add(7, GRINNING)
+                .add(8, GRINNING, TONE).build();
+        String grinning = new String(Character.toChars(GRINNING));
+        String tone = new String(Character.toChars(TONE));
+        assertMatch(matcher, "x" + grinning + tone, 1, 5, 8);
+        assertMatch(matcher, "x" + grinning + "y", 1, 3, 7);
+        // 结束位置截断代理对时不能匹配半个字符
+        assertMatch(matcher, grinning + tone, 0, 2, 7, 3);
+    }
+
+    @Test
+    public void loneSurrogatesDoNotMatch() {
+        EmojiMatcher matcher = new EmojiMatcher.Builder().add(7, GRINNING).build();
+        String grinning = new String(Character.toChars(GRINNING));
+        assertEquals(-1, matcher.match(grinning.substring(0, 1) + "a", 0, 2, mOut, 0));
+        assertEquals(-1, matcher.match(grinning.substring(1), 0, 1, mOut, 0));
+    }
+
+    @Test
+    public void laterAddOverridesValue() {
+        EmojiMatcher matcher = new EmojiMatcher.Builder().add(1, A, B).add(2, A, B).build();
+        assertMatch(matcher, "ab", 0, 2, 2);
+    }
+
+    @Test
+    public void writesAtOffset() {
+        EmojiMatcher matcher = new EmojiMatcher.Builder().add(1, B).build();
+        int[] out = new int[2 * EmojiScanner.STRIDE];
+        assertEquals(2, matcher.match("ab", 1, 2, out, EmojiScanner.STRIDE));
+        assertArrayEquals(new int[] {
+                0, 0, 0, 1, 2, 1
+        }, out);
+    }
+
+    @Test
+    public void reportsStartsAndMaxLength() {
+        EmojiMatcher matcher = new EmojiMatcher.Builder().add(1, C).add(2, GRINNING, TONE)
+                .add(3, A, B, C).build();
+        assertArrayEquals(new int[] {
+                A, C, GRINNING
+        }, matcher.getStartCodePoints());
+        assertEquals(3, matcher.getMaxLength());
+    }
+
+    @Test
+    public void emptyMatcherMatchesNothing() {
+        EmojiMatcher matcher = new EmojiMatcher.Builder().build();
+        assertEquals(-1, matcher.match("abc", 0, 3, mOut, 0));
+        assertEquals(0, new EmojiScanner(matcher).scan("abc", 0, 3, mOut));
+    }
+
+    private void assertMatch(EmojiMatcher matcher, String text, int start, int end, int value) {
+        assertMatch(matcher, text, start, end, value, text.length());
+    }
+
+    private void assertMatch(EmojiMatcher matcher, String text, int start, int end, int value,
+            int limit) {
+        assertEquals(end, matcher.match(text, start, limit, mOut, 0));
+        assertArrayEquals(new int[] {
+                start, end, value
+        }, mOut);
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2015 Umeng, Inc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.pikachu.emoji.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+/**
+ * @author BinGoBinBin
+ */
+public class EmojiScannerTest {
+
+    private static final String THUMBS_UP = "👍";
+    private static final String MEDIUM_SKIN_TONE = "🏽";
+    private static final String MAN = "👨";
+    private static final String WOMAN = "👩";
+    private static final String HEART = "❤";
+    private static final String VS16 = "️";
+    private static final String ZWJ = "‍";
+
+    private final EmojiScanner mScanner = EmojiScanner.getDefault();
+
+    @Test
+    public void scanContinuesAfterFullBuffer() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            text.append("x").append(THUMBS_UP).append(MEDIUM_SKIN_TONE).append(HEART);
+        }
+        int[] expected = mScanner.scanAll(text, 0, text.length());
+        assertEquals(20 * EmojiScanner.STRIDE, expected.length);
+
+        // 缓冲区只能放3个匹配，从最后一个匹配的结束位置继续
+        int[] out = new int[3 * EmojiScanner.STRIDE];
+        int[] collected = new int[expected.length];
+        int length = 0;
+        int i = 0;
+        while (true) {
+            int count = mScanner.scan(text, i, text.length(), out);
+            System.arraycopy(out, 0, collected, length, count * EmojiScanner.STRIDE);
+            length += count * EmojiScanner.STRIDE;
+            if (count < 3) {
+                break;
+            }
+            i = out[(count - 1) * EmojiScanner.STRIDE + 1];
+        }
+        assertArrayEquals(expected, collected);
+    }
+
+    @Test
+    public void scanStopsAtEnd() {
+        String text = THUMBS_UP + MEDIUM_SKIN_TONE;
+        int[] out = new int[EmojiScanner.STRIDE];
+        assertEquals(1, mScanner.scan(text, 0, THUMBS_UP.length(), out));
+        assertEquals(THUMBS_UP.length(), out[1]);
+    }
+
+    @Test
+    public void hasCandidatesOnlyForPossibleEmoji() {
+        assertFalse(mScanner.hasCandidates("plain text", 0, 10));
+        assertTrue(mScanner.hasCandidates("a" + THUMBS_UP, 0, 3));
+        assertFalse(mScanner.hasCandidates("a" + THUMBS_UP, 0, 1));
+    }
+
+    @Test
+    public void familySequenceMatchesEachMember() {
+        // 没有1f46a的图片，家庭序列中的每个成员单独匹配，ZWJ保留在原文中
+        String text = "a" + MAN + ZWJ + WOMAN + ZWJ + "👧" + ZWJ + "👦";
+        int[] matches = mScanner.scanAll(text, 0, text.length());
+        assertArrayEquals(new int[] {
+                1, 3, EmojiTable.indexOf(0x1f468),
+                4, 6, EmojiTable.indexOf(0x1f469),
+                7, 9, EmojiTable.indexOf(0x1f467),
+                10, 12, EmojiTable.indexOf(0x1f466)
+        }, matches);
+    }
+
+    @Test
+    public void emojiWallHasSplitPoints() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            text.append(THUMBS_UP).append(MEDIUM_SKIN_TONE).append(MAN).append(ZWJ)
+                    .append(WOMAN);
+        }
+        int unit = 2 * THUMBS_UP.length() + 2 * MAN.length() + ZWJ.length();
+        for (int i = 1; i < text.length(); i++) {
+            // 每组只能在👍和👨之前切分
+            int offset = i % unit;
+            assertEquals("index " + i, offset == 0 || offset == 4,
+                    EmojiScanner.isBoundary(text, i));
+        }
+    }
+
+    @Test
+    public void boundaryKeepsModifiersWithBase() {
+        String pointing = "\u261d" + MEDIUM_SKIN_TONE;
+        assertFalse(EmojiScanner.isBoundary(pointing, 1));
+        assertFalse(EmojiScanner.isBoundary("a\ud83c\uddef\ud83c\uddf5", 3));
+        assertFalse(EmojiScanner.isBoundary("a" + HEART + VS16, 2));
+        assertTrue(EmojiScanner.isBoundary("a" + THUMBS_UP, 1));
+        assertTrue(EmojiScanner.isBoundary(THUMBS_UP + HEART, 2));
+    }
+
+    @Test
+    public void parallelScanMatchesSequentialScan() throws Exception {
+        String[] parts = {
+                "a", " ", THUMBS_UP, THUMBS_UP + MEDIUM_SKIN_TONE, MAN, WOMAN, HEART + VS16,
+                MAN + ZWJ + HEART + VS16 + ZWJ + WOMAN, WOMAN + ZWJ + "\u2640", ZWJ, VS16,
+                "\u20e3", "\ud83c\uddef\ud83c\uddf5"
+        };
+        Random random = new Random(11);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            for (int round = 0; round < 20; round++) {
+                StringBuilder text = new StringBuilder();
+                for (int i = 2000 + random.nextInt(2000); i > 0; i--) {
+                    text.append(parts[random.nextInt(parts.length)]);
+                }
+                int[] expected = mScanner.scanAll(text, 0, text.length());
+                for (int k = 0; k < expected.length; k += EmojiScanner.STRIDE) {
+                    for (int i = expected[k] + 1; i < expected[k + 1]; i++) {
+                        assertFalse(EmojiScanner.isBoundary(text, i));
+                    }
+                }
+                for (int parallelism = 2; parallelism <= 7; parallelism++) {
+                    assertArrayEquals(expected,
+                            mScanner.scanAll(text, 0, text.length(), executor, parallelism));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void updateRebuildsSkinToneTypedAfterEmoji() {
+        assertUpdate("hi " + THUMBS_UP + " there", 3 + THUMBS_UP.length(), 0, MEDIUM_SKIN_TONE);
+    }
+
+    @Test
+    public void updateRebuildsVariationSelectorTypedAfterEmoji() {
+        assertUpdate("I " + HEART, 2 + HEART.length(), 0, VS16);
+    }
+
+    @Test
+    public void updateRebuildsZwjSequenceTypedCharByChar() {
+        String[] steps = {
+                ZWJ, HEART, VS16, ZWJ, WOMAN
+        };
+        String text = "ok " + MAN;
+        for (String step : steps) {
+            assertUpdate(text, text.length(), 0, step);
+            text = text + step;
+        }
+        assertArrayEquals(new int[] {
+                3, text.length(), EmojiTable.indexOf(0x1f491)
+        }, mScanner.scanAll(text, 0, text.length()));
+    }
+
+    @Test
+    public void updateSplitsSequenceWhenJoinerIsDeleted() {
+        String text = "x" + MAN + ZWJ + HEART + VS16 + ZWJ + WOMAN + "y";
+        assertUpdate(text, 1 + MAN.length(), 1, "");
+    }
+
+    @Test
+    public void updateMatchesFullScanForRandomEdits() {
+        String[] parts = {
+                "a", " ", "1", "#", THUMBS_UP, MEDIUM_SKIN_TONE, MAN, WOMAN, HEART, VS16, ZWJ,
+                "⃣", "🇯", "🇵", "\ue415"
+        };
+        Random random = new Random(7);
+        for (int round = 0; round < 200; round++) {
+            StringBuilder text = new StringBuilder();
+            for (int i = random.nextInt(40); i > 0; i--) {
+                text.append(parts[random.nextInt(parts.length)]);
+            }
+            for (int edit = 0; edit < 20; edit++) {
+                int start = random.nextInt(text.length() + 1);
+                int removed = random.nextInt(Math.min(3, text.length() - start) + 1);
+                String inserted = random.nextBoolean() ? parts[random.nextInt(parts.length)] : "";
+                assertUpdate(text.toString(), start, removed, inserted);
+                text.replace(start, start + removed, inserted);
+            }
+        }
+    }
+
+    /**
+     * 把text的[start, start + removed)替换成inserted，比较增量更新和重新扫描全文的结果
+     */
+    private void assertUpdate(String text, int start, int removed, String inserted) {
+        ListStore store = new ListStore(mScanner.scanAll(text, 0, text.length()));
+        store.replace(start, removed, inserted.length());
+        String edited = text.substring(0, start) + inserted + text.substring(start + removed);
+        mScanner.update(edited, start, start + inserted.length(), store,
+                new int[2 * EmojiScanner.STRIDE], new int[2]);
+        assertArrayEquals("edit " + Arrays.toString(edited.toCharArray()),
+                mScanner.scanAll(edited, 0, edited.length()), store.toArray());
+    }
+
+    /**
+     * 模拟Spannable中SPAN_EXCLUSIVE_EXCLUSIVE的span
+     */
+    private static final class ListStore implements EmojiScanner.MatchStore {
+        private final List<int[]> mMatches = new ArrayList<int[]>();
+
+        ListStore(int[] matches) {
+            for (int k = 0; k < matches.length; k += EmojiScanner.STRIDE) {
+                mMatches.add(Arrays.copyOfRange(matches, k, k + EmojiScanner.STRIDE));
+            }
+        }
+
+        void replace(int start, int removed, int inserted) {
+            int end = start + removed;
+            int delta = inserted - removed;
+            for (int i = mMatches.size() - 1; i >= 0; i--) {
+                int[] match = mMatches.get(i);
+                int matchStart = match[0] < start ? match[0] : match[0] >= end ? match[0]
+                        + delta : start + inserted;
+                int matchEnd = match[1] <= start ? match[1] : match[1] >= end ? match[1]
+                        + delta : start;
+                if (matchEnd <= matchStart) {
+                    mMatches.remove(i);
+                } else {
+                    match[0] = matchStart;
+                    match[1] = matchEnd;
+                }
+            }
+        }
+
+        @Override
+        public void removeMatches(int start, int end, int[] bounds) {
+            for (int i = mMatches.size() - 1; i >= 0; i--) {
+                int[] match = mMatches.get(i);
+                if (match[1] >= start && match[0] <= end) {
+                    bounds[0] = Math.min(bounds[0], match[0]);
+                    bounds[1] = Math.max(bounds[1], match[1]);
+                    mMatches.remove(i);
+                }
+            }
+        }
+
+        @Override
+        public void addMatch(int start, int end, int emojiId) {
+            mMatches.add(new int[] {
+                    start, end, emojiId
+            });
+        }
+
+        int[] toArray() {
+            int[][] matches = mMatches.toArray(new int[mMatches.size()][]);
+            Arrays.sort(matches, new Comparator<int[]>() {
+
+                @Override
+                public int compare(int[] a, int[] b) {
+                    return a[0] - b[0];
+                }
+            });
+            int[] result = new int[matches.length * EmojiScanner.STRIDE];
+            for (int i = 0; i < matches.length; i++) {
+                System.arraycopy(matches[i], 0, result, i * EmojiScanner.STRIDE,
+                        EmojiScanner.STRIDE);
+            }
+            return result;
+        }
+    }
+}
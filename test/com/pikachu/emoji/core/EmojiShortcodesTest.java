@@ -0,0 +1,104 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2015 Umeng, Inc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.pikachu.emoji.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * @author BinGoBinBin
+ */
+public class EmojiShortcodesTest {
+
+    private static final int SMILE = EmojiTable.indexOf(0x1f604);
+    private static final int THUMBS_UP = EmojiTable.indexOf(0x1f44d);
+
+    @Test
+    public void findsShortcodesIgnoringCase() {
+        assertEquals(SMILE, find("smile"));
+        assertEquals(SMILE, find("SMILE"));
+        assertEquals(THUMBS_UP, find("+1"));
+    }
+
+    @Test
+    public void unknownShortcodesHaveNoValue() {
+        assertEquals(EmojiMatcher.NO_VALUE, find("smil"));
+        assertEquals(EmojiMatcher.NO_VALUE, find("smilez"));
+        assertEquals(EmojiMatcher.NO_VALUE, find(""));
+        StringBuilder tooLong = new StringBuilder();
+        for (int i = 0; i <= EmojiShortcodes.MAX_LENGTH; i++) {
+            tooLong.append('a');
+        }
+        assertEquals(EmojiMatcher.NO_VALUE, find(tooLong.toString()));
+    }
+
+    @Test
+    public void everyShortcodeRoundTrips() {
+        int found = 0;
+        for (int id = 0; id < EmojiTable.size(); id++) {
+            StringBuilder name = new StringBuilder();
+            if (EmojiShortcodes.appendShortcode(id, name)) {
+                assertEquals(id, find(name.toString()));
+                found++;
+            }
+        }
+        assertEquals(EmojiShortcodes.size(), found);
+    }
+
+    @Test
+    public void appendShortcodeLeavesOutputAloneWithoutShortcode() {
+        StringBuilder out = new StringBuilder("x");
+        assertFalse(EmojiShortcodes.appendShortcode(-1, out));
+        assertFalse(EmojiShortcodes.appendShortcode(EmojiTable.size(), out));
+        assertEquals("x", out.toString());
+    }
+
+    @Test
+    public void matchesShortcodeBeforeCursor() {
+        String text = "hi :smile:";
+        int[] out = new int[EmojiScanner.STRIDE];
+        assertTrue(EmojiShortcodes.matchBefore(text, text.length(), out));
+        assertArrayEquals(new int[] {
+                3, text.length(), SMILE
+        }, out);
+    }
+
+    @Test
+    public void ignoresIncompleteOrInterruptedShortcodes() {
+        int[] out = new int[EmojiScanner.STRIDE];
+        assertFalse(EmojiShortcodes.matchBefore("hi :smile", 9, out));
+        assertFalse(EmojiShortcodes.matchBefore("hi :smi le:", 11, out));
+        assertFalse(EmojiShortcodes.matchBefore("10:30:", 6, out));
+        assertFalse(EmojiShortcodes.matchBefore("::", 2, out));
+    }
+
+    private static int find(String name) {
+        return EmojiShortcodes.find(":" + name + ":", 1, name.length() + 1);
+    }
+}
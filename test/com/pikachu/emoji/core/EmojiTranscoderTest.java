@@ -0,0 +1,225 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2015 Umeng, Inc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.pikachu.emoji.core;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import com.pikachu.emoji.core.EmojiTranscoder.Format;
+
+/**
+ * @author BinGoBinBin
+ */
+public class EmojiTranscoderTest {
+
+    private static final String SMILE = "😄";
+    private static final String THUMBS_UP_TONE = "👍🏽";
+    private static final String COUPLE = "👨‍❤️‍👨";
+    private static final String[] PARTS = {
+            "hello ", SMILE, THUMBS_UP_TONE, COUPLE, "a&b<c>\"", "\n", "10:30 ", "❤️", "x",
+            "中文", "[emoji:zz]", "#", "[emoji:1f604]", ":smile:", ":smile", "\\", ":"
+    };
+
+    @Test
+    public void encodesPlaceholders() {
+        EmojiTranscoder transcoder = new EmojiTranscoder(Format.PLACEHOLDER);
+        assertEquals("a[emoji:1f604]b[emoji:1f44d-1f3fd]",
+                transcoder.encode("a" + SMILE + "b" + THUMBS_UP_TONE));
+    }
+
+    @Test
+    public void encodesShortcodesOnlyForBaseEmoji() {
+        EmojiTranscoder transcoder = new EmojiTranscoder(Format.SHORTCODE);
+        assertEquals(":smile: [emoji:1f44d-1f3fd]", transcoder.encode(SMILE + " "
+                + THUMBS_UP_TONE));
+        assertEquals(SMILE + " " + THUMBS_UP_TONE, transcoder.decode(":smile: "
+                + "[emoji:1f44d-1f3fd]"));
+    }
+
+    @Test
+    public void encodesHtmlAndEscapesText() {
+        EmojiTranscoder transcoder = new EmojiTranscoder(Format.HTML, "/e/");
+        String html = transcoder.encode("<b>" + SMILE);
+        assertEquals(true, html.startsWith("&lt;b&gt;<img class=\"emoji\" alt=\"&#x1f604;\" "
+                + "src=\"/e/emoji_atlas_0.png\""));
+        assertEquals("<b>" + SMILE, transcoder.decode(html));
+    }
+
+    @Test
+    public void leavesIncompleteTokensAsText() {
+        EmojiTranscoder transcoder = new EmojiTranscoder(Format.SHORTCODE);
+        assertEquals("[emoji:1f604 :smile", transcoder.decode("[emoji:1f604 :smile"));
+        assertEquals("10:30:00 [emoji:zz]", transcoder.decode("10:30:00 [emoji:zz]"));
+    }
+
+    @Test
+    public void escapesExistingTokens() {
+        EmojiTranscoder placeholder = new EmojiTranscoder(Format.PLACEHOLDER);
+        String text = "[emoji:1f604] :smile: \\[x]";
+        assertEquals("\\[emoji:1f604] :smile: \\\\[x]", placeholder.encode(text));
+        assertEquals(text, placeholder.decode(placeholder.encode(text)));
+
+        EmojiTranscoder shortcode = new EmojiTranscoder(Format.SHORTCODE);
+        assertEquals("\\:smile: 10:30 \\[emoji:1f604]", shortcode.encode(
+                ":smile: 10:30 [emoji:1f604]"));
+        // 原文中的":smile"和后面emoji的短码连在一起也会组成短码
+        assertEquals("\\:smile:smile:", shortcode.encode(":smile" + SMILE));
+        assertEquals(":smile" + SMILE, shortcode.decode(shortcode.encode(":smile" + SMILE)));
+    }
+
+    @Test
+    public void keepsUnknownEscapes() {
+        EmojiTranscoder transcoder = new EmojiTranscoder(Format.SHORTCODE);
+        assertEquals("C:\\temp\\ " + SMILE + "\\", transcoder.decode("C:\\temp\\ :smile:\\"));
+    }
+
+    @Test
+    public void leavesSurrogateCodePointsAsText() {
+        EmojiTranscoder transcoder = new EmojiTranscoder(Format.PLACEHOLDER);
+        assertEquals("[emoji:d83d] [emoji:1f604-dfff]", transcoder.decode(
+                "[emoji:d83d] [emoji:1f604-dfff]"));
+        EmojiTranscoder html = new EmojiTranscoder(Format.HTML);
+        String image = "<img class=\"emoji\" alt=\"&#xd800;\" src=\"a.png\">";
+        assertEquals(image, html.decode(image));
+    }
+
+    @Test
+    public void allFormatsRoundTrip() throws Exception {
+        String text = randomText(new Random(1), 30000);
+        assertRoundTrip(new EmojiTranscoder(Format.PLACEHOLDER), text);
+        // 短码还原出的emoji不带VS16
+        assertRoundTrip(new EmojiTranscoder(Format.SHORTCODE), text.replace("\ufe0f", ""));
+        assertRoundTrip(new EmojiTranscoder(Format.HTML, "/static/emoji/"), text);
+    }
+
+    @Test
+    public void sequencesAcrossBufferBoundariesRoundTrip() throws Exception {
+        // 让多code point序列依次落在流缓冲区边界的每个位置上
+        for (Format format : Format.values()) {
+            EmojiTranscoder transcoder = new EmojiTranscoder(format);
+            for (int shift = -COUPLE.length(); shift <= 1; shift++) {
+                StringBuilder text = new StringBuilder();
+                while (text.length() < EmojiTranscoder.DEFAULT_BUFFER_SIZE + shift) {
+                    text.append('x');
+                }
+                text.append(COUPLE).append(THUMBS_UP_TONE).append("y");
+                String encoded = transcoder.encode(text);
+                assertEquals(encoded, encodeStream(transcoder, text.toString()));
+                assertEquals(transcoder.decode(encoded), decodeStream(transcoder, encoded));
+            }
+        }
+    }
+
+    @Test
+    public void streamingAndParallelMatchInMemoryConversion() throws Exception {
+        String text = randomText(new Random(2), 40000);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            for (Format format : Format.values()) {
+                EmojiTranscoder transcoder = new EmojiTranscoder(format, "/e/");
+                String encoded = transcoder.encode(text);
+                String decoded = transcoder.decode(encoded);
+                assertEquals(encoded, encodeStream(transcoder, text));
+                assertEquals(encoded, transcoder.encode(text, executor));
+                StringWriter out = new StringWriter();
+                transcoder.encode(new ChunkedReader(text), out, executor, 3, 500);
+                assertEquals(encoded, out.toString());
+
+                assertEquals(decoded, decodeStream(transcoder, encoded));
+                assertEquals(decoded, transcoder.decode(encoded, executor));
+                out = new StringWriter();
+                transcoder.decode(new ChunkedReader(encoded), out, executor, 3, 700);
+                assertEquals(decoded, out.toString());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void assertRoundTrip(EmojiTranscoder transcoder, String text)
+            throws IOException {
+        String encoded = encodeStream(transcoder, text);
+        assertEquals(text, decodeStream(transcoder, encoded));
+    }
+
+    private static String encodeStream(EmojiTranscoder transcoder, String text)
+            throws IOException {
+        StringWriter out = new StringWriter();
+        transcoder.encode(new ChunkedReader(text), out);
+        return out.toString();
+    }
+
+    private static String decodeStream(EmojiTranscoder transcoder, String text)
+            throws IOException {
+        StringWriter out = new StringWriter();
+        transcoder.decode(new ChunkedReader(text), out);
+        return out.toString();
+    }
+
+    private static String randomText(Random random, int parts) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < parts; i++) {
+            text.append(PARTS[random.nextInt(PARTS.length)]);
+        }
+        return text.toString();
+    }
+
+    /**
+     * 每次只返回随机的少量字符，代理对和序列会被拆到不同的read中
+     */
+    private static final class ChunkedReader extends Reader {
+        private final String mText;
+        private final Random mRandom = new Random(3);
+        private int mPosition;
+
+        ChunkedReader(String text) {
+            mText = text;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (mPosition >= mText.length()) {
+                return -1;
+            }
+            int count = Math.min(Math.min(length, 1 + mRandom.nextInt(37)), mText.length()
+                    - mPosition);
+            mText.getChars(mPosition, mPosition + count, buffer, offset);
+            mPosition += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
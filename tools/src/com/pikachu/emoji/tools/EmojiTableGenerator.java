@@ -0,0 +1,646 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2015 Umeng, Inc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.pikachu.emoji.tools;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.imageio.ImageIO;
+
+/**
+ * 构建时把tools/emoji.txt编译成EmojiData.java，并把所有emoji图片打包成图集(emoji_atlas_N.png)，
+ * 运行时只需要解码一张图片，也不再逐个通过资源名查找emoji。每行code point后面的关键字编译成有序的前缀索引，
+ * 供表情面板的搜索使用；:shortcode:编译成有序的短码表，供输入框转换短码。
+ * tools/carrier_emoji.txt中运营商私有区emoji的对照表编译成每个运营商一张连续的查找表；
+ * 指定了Unicode的EmojiSources.txt时，其中三个运营商的全部对照也加入查找表，carrier_emoji.txt中的映射优先.</br>
+ * 用法: EmojiTableGenerator &lt;emoji.txt&gt; &lt;emoji图片目录&gt; &lt;drawable目录&gt; &lt;EmojiData.java&gt;
+ * &lt;carrier_emoji.txt&gt; [EmojiSources.txt]
+ * 
+ * @author BinGoBinBin
+ */
+public class EmojiTableGenerator {
+
+    private static final int PER_LINE = 8;
+    /**
+     * 图集的最大边长，大部分设备支持的最小纹理尺寸
+     */
+    private static final int MAX_ATLAS_SIZE = 2048;
+    /**
+     * 格子之间的透明间隔，避免缩放时采样到相邻的emoji
+     */
+    private static final int GUTTER = 2;
+    /**
+     * 关键字的最大长度，与运行时搜索框的输入上限一致
+     */
+    private static final int MAX_KEYWORD_LENGTH = 32;
+    /**
+     * 短码(不含冒号)的最大长度，输入框向前查找开头的冒号时不会超过这个范围
+     */
+    private static final int MAX_SHORTCODE_LENGTH = 32;
+    /**
+     * carrier_emoji.txt中的运营商名，顺序即运行时的运营商编号
+     */
+    private static final String[] CARRIERS = {
+            "softbank", "docomo", "kddi"
+    };
+    private static final int SOFTBANK = 0;
+    private static final int DOCOMO = 1;
+    private static final int KDDI = 2;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 5 && args.length != 6) {
+            System.err.println("usage: EmojiTableGenerator <emoji.txt> <emoji png dir> "
+                    + "<drawable dir> <EmojiData.java> <carrier_emoji.txt> [EmojiSources.txt]");
+            System.exit(1);
+        }
+
+        Map<String, List<Integer>> keywords = new TreeMap<String, List<Integer>>();
+        Map<String, Integer> shortcodes = new TreeMap<String, Integer>();
+        List<Integer> codePoints = readTable(new File(args[0]), keywords, shortcodes);
+        List<TreeMap<Integer, int[]>> carriers = readCarriers(new File(args[4]));
+        if (args.length > 5 && new File(args[5]).isFile()) {
+            readEmojiSources(new File(args[5]), carriers);
+        }
+        File emojiDir = new File(args[1]);
+        BufferedImage[] images = new BufferedImage[codePoints.size()];
+        int cell = 0;
+        for (int i = 0; i < images.length; i++) {
+            File png = new File(emojiDir, "emoji_" + Integer.toHexString(codePoints.get(i))
+                    + ".png");
+            if (!png.isFile()) {
+                throw new IOException("missing image " + png);
+            }
+            images[i] = ImageIO.read(png);
+            cell = Math.max(cell, Math.max(images[i].getWidth(), images[i].getHeight()));
+        }
+
+        Atlas atlas = new Atlas(images.length, cell);
+        File drawableDir = new File(args[2]);
+        for (int page = 0; page < atlas.mPages; page++) {
+            byte[] png = atlas.draw(images, page);
+            writeIfChanged(new File(drawableDir, "emoji_atlas_" + page + ".png"), png);
+        }
+
+        // 内容没有变化时不改写文件，避免触发增量编译
+        writeIfChanged(new File(args[3]), generate(codePoints, atlas, keywords, shortcodes,
+                carriers).getBytes("UTF-8"));
+    }
+
+    /**
+     * 图集布局：每页columns * rows个边长为cell的格子，按emoji id逐行排列
+     */
+    static final class Atlas {
+        final int mCell;
+        final int mPitch;
+        final int mColumns;
+        final int mRows;
+        final int mPages;
+
+        Atlas(int count, int cell) {
+            mCell = cell;
+            mPitch = cell + GUTTER;
+            int maxPerLine = MAX_ATLAS_SIZE / mPitch;
+            mColumns = Math.max(1, Math.min(maxPerLine, (int) Math.ceil(Math.sqrt(count))));
+            int rowsNeeded = (count + mColumns - 1) / mColumns;
+            mRows = Math.max(1, Math.min(maxPerLine, rowsNeeded));
+            mPages = Math.max(1, (count + mColumns * mRows - 1) / (mColumns * mRows));
+        }
+
+        byte[] draw(BufferedImage[] images, int page) throws IOException {
+            int perPage = mColumns * mRows;
+            int first = page * perPage;
+            int last = Math.min(images.length, first + perPage);
+            int rows = (last - first + mColumns - 1) / mColumns;
+            BufferedImage atlas = new BufferedImage(mColumns * mPitch, rows * mPitch,
+                    BufferedImage.TYPE_INT_ARGB);
+            Graphics2D graphics = atlas.createGraphics();
+            for (int id = first; id < last; id++) {
+                BufferedImage image = images[id];
+                int index = id - first;
+                // 居中放进格子
+                int x = (index % mColumns) * mPitch + (mCell - image.getWidth()) / 2;
+                int y = (index / mColumns) * mPitch + (mCell - image.getHeight()) / 2;
+                graphics.drawImage(image, x, y, null);
+            }
+            graphics.dispose();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(atlas, "png", out);
+            return out.toByteArray();
+        }
+    }
+
+    private static void writeIfChanged(File file, byte[] content) throws IOException {
+        if (file.isFile() && Arrays.equals(content, readFile(file))) {
+            return;
+        }
+        OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content);
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * 读取emoji表，每行为"code point :短码: 关键字..."，短码可以省略，关键字统一转为小写。
+     * 短码本身也作为搜索关键字.</br>
+     * 
+     * @param keywords 输出，关键字 -> 使用该关键字的emoji id(升序)
+     * @param shortcodes 输出，短码(不含冒号) -> emoji id
+     * @return 按行排列的code point，下标即emoji id
+     */
+    static List<Integer> readTable(File file, Map<String, List<Integer>> keywords,
+            Map<String, Integer> shortcodes) throws IOException {
+        List<Integer> codePoints = new ArrayList<Integer>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(file), "UTF-8"));
+        try {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.length() == 0 || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\\s+");
+                int codePoint;
+                try {
+                    codePoint = Integer.parseInt(fields[0], 16);
+                } catch (NumberFormatException e) {
+                    throw new IOException(file + ":" + lineNumber + ": invalid code point "
+                            + fields[0]);
+                }
+                if (codePoints.contains(codePoint)) {
+                    throw new IOException(file + ":" + lineNumber + ": duplicate code point "
+                            + fields[0]);
+                }
+                int id = codePoints.size();
+                codePoints.add(codePoint);
+                for (int i = 1; i < fields.length; i++) {
+                    String keyword = fields[i].toLowerCase(Locale.US);
+                    if (keyword.length() > 2 && keyword.startsWith(":") && keyword.endsWith(":")) {
+                        keyword = keyword.substring(1, keyword.length() - 1);
+                        if (!isValidShortcode(keyword)) {
+                            throw new IOException(file + ":" + lineNumber + ": invalid shortcode "
+                                    + fields[i]);
+                        }
+                        if (shortcodes.containsKey(keyword)) {
+                            throw new IOException(file + ":" + lineNumber
+                                    + ": duplicate shortcode " + fields[i]);
+                        }
+                        shortcodes.put(keyword, id);
+                    }
+                    if (keyword.length() > MAX_KEYWORD_LENGTH) {
+                        throw new IOException(file + ":" + lineNumber + ": keyword too long "
+                                + fields[i]);
+                    }
+                    List<Integer> ids = keywords.get(keyword);
+                    if (ids == null) {
+                        ids = new ArrayList<Integer>();
+                        keywords.put(keyword, ids);
+                    }
+                    if (!ids.contains(id)) {
+                        ids.add(id);
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return codePoints;
+    }
+
+    /**
+     * 读取运营商私有区emoji的对照表，每行为"运营商 私有区code point 替换的code point..."</br>
+     * 
+     * @return 按{@link #CARRIERS}的顺序，每个运营商一个私有区code point -> 替换序列的有序映射
+     */
+    static List<TreeMap<Integer, int[]>> readCarriers(File file) throws IOException {
+        List<TreeMap<Integer, int[]>> carriers = new ArrayList<TreeMap<Integer, int[]>>();
+        for (int i = 0; i < CARRIERS.length; i++) {
+            carriers.add(new TreeMap<Integer, int[]>());
+        }
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(file), "UTF-8"));
+        try {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.length() == 0 || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\\s+");
+                int carrier = Arrays.asList(CARRIERS).indexOf(fields[0].toLowerCase(Locale.US));
+                if (carrier < 0 || fields.length < 3) {
+                    throw new IOException(file + ":" + lineNumber + ": invalid mapping " + line);
+                }
+                int[] values = new int[fields.length - 1];
+                try {
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = Integer.parseInt(fields[i + 1], 16);
+                    }
+                } catch (NumberFormatException e) {
+                    throw new IOException(file + ":" + lineNumber + ": invalid code point " + line);
+                }
+                if (values[0] < 0xe000 || values[0] > 0xf8ff) {
+                    throw new IOException(file + ":" + lineNumber + ": not a private use code point "
+                            + fields[1]);
+                }
+                int[] replacement = Arrays.copyOfRange(values, 1, values.length);
+                if (carriers.get(carrier).put(values[0], replacement) != null) {
+                    throw new IOException(file + ":" + lineNumber + ": duplicate code point "
+                            + fields[1]);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return carriers;
+    }
+
+    /**
+     * 读取Unicode的EmojiSources.txt，每行为"code point序列;DoCoMo;KDDI;SoftBank"，后三列为运营商的Shift_JIS编码，
+     * 换算成各运营商的私有区code point后加入carriers。carriers中已有的映射保持不变</br>
+     * 
+     * @param file EmojiSources.txt
+     * @param carriers {@link #readCarriers(File)}的结果
+     */
+    static void readEmojiSources(File file, List<TreeMap<Integer, int[]>> carriers)
+            throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(file), "UTF-8"));
+        try {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.length() == 0 || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split(";", -1);
+                if (fields.length < 4) {
+                    throw new IOException(file + ":" + lineNumber + ": invalid mapping " + line);
+                }
+                int[] replacement;
+                int[] sjis = new int[3];
+                try {
+                    String[] codePoints = fields[0].trim().split("\\s+");
+                    replacement = new int[codePoints.length];
+                    for (int i = 0; i < codePoints.length; i++) {
+                        replacement[i] = Integer.parseInt(codePoints[i], 16);
+                    }
+                    for (int i = 0; i < 3; i++) {
+                        String code = fields[i + 1].trim();
+                        sjis[i] = code.length() == 0 ? -1 : Integer.parseInt(code, 16);
+                    }
+                } catch (NumberFormatException e) {
+                    throw new IOException(file + ":" + lineNumber + ": invalid code " + line);
+                }
+                addSource(carriers.get(DOCOMO), docomoToPrivateUse(sjis[0]), replacement);
+                addSource(carriers.get(KDDI), kddiToPrivateUse(sjis[1]), replacement);
+                addSource(carriers.get(SOFTBANK), softbankToPrivateUse(sjis[2]), replacement);
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static void addSource(TreeMap<Integer, int[]> carrier, int privateUse,
+            int[] replacement) {
+        if (privateUse >= 0 && !carrier.containsKey(privateUse)) {
+            carrier.put(privateUse, replacement);
+        }
+    }
+
+    /**
+     * Shift_JIS用户定义区(F040-F9FC)按CP932的规则对应U+E000-U+E757，每个首字节188个字符，没有时返回-1
+     */
+    private static int userDefinedToPrivateUse(int sjis) {
+        int lead = sjis >> 8;
+        int trail = sjis & 0xff;
+        if (lead < 0xf0 || lead > 0xf9 || trail < 0x40 || trail == 0x7f || trail > 0xfc) {
+            return -1;
+        }
+        return 0xe000 + (lead - 0xf0) * 188 + trail - (trail < 0x80 ? 0x40 : 0x41);
+    }
+
+    /**
+     * DoCoMo的私有区与CP932的用户定义区一致
+     */
+    static int docomoToPrivateUse(int sjis) {
+        return sjis < 0 ? -1 : userDefinedToPrivateUse(sjis);
+    }
+
+    /**
+     * KDDI的F640-F7FC与CP932一致(U+E468起)，F340-F493平移到U+EA80-U+EB8E
+     */
+    static int kddiToPrivateUse(int sjis) {
+        int privateUse = sjis < 0 ? -1 : userDefinedToPrivateUse(sjis);
+        if (privateUse < 0) {
+            return -1;
+        }
+        int lead = sjis >> 8;
+        return lead == 0xf3 || lead == 0xf4 ? privateUse + 0x84c : privateUse;
+    }
+
+    /**
+     * SoftBank按首字节和第二字节的范围分成6组，依次对应U+E001、E101、E201、E301、E401、E501开始的区域
+     */
+    static int softbankToPrivateUse(int sjis) {
+        if (sjis < 0) {
+            return -1;
+        }
+        int lead = sjis >> 8;
+        int trail = sjis & 0xff;
+        int page;
+        int index;
+        if (trail >= 0x41 && trail <= 0x9b && trail != 0x7f) {
+            index = trail - (trail < 0x80 ? 0x41 : 0x42);
+            page = lead == 0xf9 ? 0 : lead == 0xf7 ? 1 : lead == 0xfb ? 4 : -1;
+        } else if (trail >= 0xa1 && trail <= 0xfa) {
+            index = trail - 0xa1;
+            page = lead == 0xf7 ? 2 : lead == 0xf9 ? 3 : lead == 0xfb ? 5 : -1;
+        } else {
+            return -1;
+        }
+        return page < 0 ? -1 : 0xe001 + page * 0x100 + index;
+    }
+
+    /**
+     * 短码只能由小写字母、数字、'_'、'+'、'-'组成，与输入框识别的字符一致
+     */
+    private static boolean isValidShortcode(String shortcode) {
+        if (shortcode.length() > MAX_SHORTCODE_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < shortcode.length(); i++) {
+            char c = shortcode.charAt(i);
+            if (!(c >= 'a' && c <= 'z' || c >= '0' && c <= '9' || c == '_' || c == '+'
+                    || c == '-')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String generate(List<Integer> codePoints, Atlas atlas,
+            Map<String, List<Integer>> keywords, Map<String, Integer> shortcodes,
+            List<TreeMap<Integer, int[]>> carriers) {
+        StringBuilder builder = new StringBuilder();
+        builder.append("/*\n");
+        builder.append(" * AUTO-GENERATED FILE. DO NOT MODIFY.\n");
+        builder.append(" *\n");
+        builder.append(" * Generated by EmojiTableGenerator from tools/emoji.txt.\n");
+        builder.append(" */\n\n");
+        builder.append("package com.pikachu.emoji.core;\n\n");
+        builder.append("final class EmojiData {\n\n");
+        builder.append("    private EmojiData() {\n");
+        builder.append("    }\n\n");
+        builder.append("    /**\n");
+        builder.append("     * 有图片的emoji，按表情面板的顺序排列，下标即emoji id\n");
+        builder.append("     */\n");
+        builder.append("    static final int[] CODE_POINTS = {\n");
+        for (int i = 0; i < codePoints.size(); i++) {
+            if (i % PER_LINE == 0) {
+                builder.append("            ");
+            }
+            builder.append("0x").append(Integer.toHexString(codePoints.get(i)));
+            if (i < codePoints.size() - 1) {
+                builder.append(i % PER_LINE == PER_LINE - 1 ? ",\n" : ", ");
+            }
+        }
+        builder.append("\n    };\n\n");
+        appendConstant(builder, "图集中每个emoji格子的边长(px)", "ATLAS_CELL", atlas.mCell);
+        appendConstant(builder, "图集中相邻格子起点的距离(px)", "ATLAS_PITCH", atlas.mPitch);
+        appendConstant(builder, "图集每行的格子数", "ATLAS_COLUMNS", atlas.mColumns);
+        appendConstant(builder, "图集每页的行数", "ATLAS_ROWS", atlas.mRows);
+        appendConstant(builder, "图集页数，第N页的资源名为emoji_atlas_N", "ATLAS_PAGES", atlas.mPages);
+        appendKeywords(builder, keywords);
+        builder.append("\n");
+        appendShortcodes(builder, shortcodes);
+        builder.append("\n");
+        appendCarriers(builder, carriers);
+        builder.append("}\n");
+        return builder.toString();
+    }
+
+    /**
+     * 关键字索引放在单独的内部类中，只有第一次搜索时才加载。所有数据都编码成字符串常量，
+     * 不会像数组初始化那样生成大量字节码.
+     */
+    private static void appendKeywords(StringBuilder builder, Map<String, List<Integer>> keywords) {
+        StringBuilder words = new StringBuilder();
+        StringBuilder wordStarts = new StringBuilder();
+        StringBuilder ids = new StringBuilder();
+        StringBuilder idStarts = new StringBuilder();
+        for (Map.Entry<String, List<Integer>> entry : keywords.entrySet()) {
+            wordStarts.append((char) words.length());
+            idStarts.append((char) ids.length());
+            words.append(entry.getKey());
+            for (int id : entry.getValue()) {
+                ids.append((char) id);
+            }
+        }
+        wordStarts.append((char) words.length());
+        idStarts.append((char) ids.length());
+
+        builder.append("    /**\n");
+        builder.append("     * 搜索关键字的前缀索引，关键字按字典序排列\n");
+        builder.append("     */\n");
+        builder.append("    static final class Keywords {\n\n");
+        builder.append("        private Keywords() {\n");
+        builder.append("        }\n\n");
+        appendString(builder, "所有关键字依次拼接", "WORDS", words);
+        appendString(builder, "第i个字符为第i个关键字在WORDS中的起点，最后一项为WORDS的长度",
+                "WORD_STARTS", wordStarts);
+        appendString(builder, "使用各个关键字的emoji id，按关键字分组", "IDS", ids);
+        appendString(builder, "第i个字符为第i个关键字在IDS中的起点，最后一项为IDS的长度",
+                "ID_STARTS", idStarts);
+        builder.setLength(builder.length() - 1);
+        builder.append("    }\n");
+    }
+
+    /**
+     * 短码表同样放在单独的内部类中，按短码的字典序排列，运行时二分查找
+     */
+    private static void appendShortcodes(StringBuilder builder, Map<String, Integer> shortcodes) {
+        StringBuilder names = new StringBuilder();
+        StringBuilder nameStarts = new StringBuilder();
+        StringBuilder ids = new StringBuilder();
+        for (Map.Entry<String, Integer> entry : shortcodes.entrySet()) {
+            nameStarts.append((char) names.length());
+            names.append(entry.getKey());
+            ids.append((char) entry.getValue().intValue());
+        }
+        nameStarts.append((char) names.length());
+
+        builder.append("    /**\n");
+        builder.append("     * :shortcode:表，短码不含冒号，按字典序排列\n");
+        builder.append("     */\n");
+        builder.append("    static final class Shortcodes {\n\n");
+        builder.append("        private Shortcodes() {\n");
+        builder.append("        }\n\n");
+        builder.append("        /**\n");
+        builder.append("         * 短码的最大长度\n");
+        builder.append("         */\n");
+        builder.append("        static final int MAX_LENGTH = ").append(MAX_SHORTCODE_LENGTH)
+                .append(";\n\n");
+        appendString(builder, "所有短码依次拼接", "NAMES", names);
+        appendString(builder, "第i个字符为第i个短码在NAMES中的起点，最后一项为NAMES的长度",
+                "NAME_STARTS", nameStarts);
+        appendString(builder, "第i个字符为第i个短码对应的emoji id", "IDS", ids);
+        builder.setLength(builder.length() - 1);
+        builder.append("    }\n");
+    }
+
+    /**
+     * 每个运营商一张覆盖其私有区范围的连续表，私有区字符减去起点即为下标，表中保存替换序列的编号 + 1，
+     * 0表示没有对应的emoji。相同的替换序列只保存一次
+     */
+    private static void appendCarriers(StringBuilder builder, List<TreeMap<Integer, int[]>> carriers) {
+        StringBuilder replacements = new StringBuilder();
+        StringBuilder replacementStarts = new StringBuilder();
+        Map<String, Integer> indexes = new TreeMap<String, Integer>();
+        String[] tables = new String[carriers.size()];
+        int[] firsts = new int[carriers.size()];
+        for (int carrier = 0; carrier < carriers.size(); carrier++) {
+            TreeMap<Integer, int[]> mappings = carriers.get(carrier);
+            if (mappings.isEmpty()) {
+                tables[carrier] = "";
+                continue;
+            }
+            int first = mappings.firstKey();
+            int last = mappings.lastKey();
+            char[] table = new char[last - first + 1];
+            for (Map.Entry<Integer, int[]> entry : mappings.entrySet()) {
+                String replacement = new String(entry.getValue(), 0, entry.getValue().length);
+                Integer index = indexes.get(replacement);
+                if (index == null) {
+                    index = indexes.size();
+                    indexes.put(replacement, index);
+                    replacementStarts.append((char) replacements.length());
+                    replacements.append(replacement);
+                }
+                table[entry.getKey() - first] = (char) (index + 1);
+            }
+            firsts[carrier] = first;
+            tables[carrier] = new String(table);
+        }
+        replacementStarts.append((char) replacements.length());
+
+        builder.append("    /**\n");
+        builder.append("     * 运营商私有区emoji到标准code point的对照表\n");
+        builder.append("     */\n");
+        builder.append("    static final class Carriers {\n\n");
+        builder.append("        private Carriers() {\n");
+        builder.append("        }\n\n");
+        for (int carrier = 0; carrier < CARRIERS.length; carrier++) {
+            String name = CARRIERS[carrier].toUpperCase(Locale.US);
+            builder.append("        /**\n");
+            builder.append("         * ").append(name).append("表第一项对应的私有区字符\n");
+            builder.append("         */\n");
+            builder.append("        static final int ").append(name).append("_FIRST = 0x")
+                    .append(Integer.toHexString(firsts[carrier])).append(";\n\n");
+            appendString(builder, "第i个字符为" + name + "_FIRST + i的替换序列编号 + 1，0表示没有",
+                    name, tables[carrier]);
+        }
+        appendString(builder, "所有替换序列依次拼接(UTF-16)", "REPLACEMENTS", replacements);
+        appendString(builder, "第i个字符为第i个替换序列在REPLACEMENTS中的起点，最后一项为REPLACEMENTS的长度",
+                "REPLACEMENT_STARTS", replacementStarts);
+        builder.setLength(builder.length() - 1);
+        builder.append("    }\n");
+    }
+
+    private static void appendString(StringBuilder builder, String doc, String name,
+            CharSequence value) {
+        builder.append("        /**\n");
+        builder.append("         * ").append(doc).append("\n");
+        builder.append("         */\n");
+        builder.append("        static final String ").append(name).append(" =");
+        // 每行最多PER_LINE * 4个字符。unicode转义在词法分析之前处理，\\u000a和\\u0022会破坏字面量，
+        // 所以ASCII范围内的控制字符、引号和反斜杠用八进制转义
+        int perLine = PER_LINE * 4;
+        for (int i = 0; i < value.length(); i += perLine) {
+            builder.append(i == 0 ? " \"" : "\n                + \"");
+            int end = Math.min(value.length(), i + perLine);
+            for (int j = i; j < end; j++) {
+                char c = value.charAt(j);
+                if (c >= 0x20 && c < 0x7f && c != '"' && c != '\\') {
+                    builder.append(c);
+                } else if (c < 0x80) {
+                    builder.append(String.format("\\%03o", (int) c));
+                } else {
+                    builder.append(String.format("\\u%04x", (int) c));
+                }
+            }
+            builder.append('"');
+        }
+        if (value.length() == 0) {
+            builder.append(" \"\"");
+        }
+        builder.append(";\n\n");
+    }
+
+    private static void appendConstant(StringBuilder builder, String doc, String name, int value) {
+        builder.append("    /**\n");
+        builder.append("     * ").append(doc).append("\n");
+        builder.append("     */\n");
+        builder.append("    static final int ").append(name).append(" = ").append(value)
+                .append(";\n\n");
+    }
+
+    private static byte[] readFile(File file) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        FileInputStream in = new FileInputStream(file);
+        try {
+            byte[] buffer = new byte[4096];
+            int count;
+            while ((count = in.read(buffer)) > 0) {
+                out.write(buffer, 0, count);
+            }
+        } finally {
+            in.close();
+        }
+        return out.toByteArray();
+    }
+}